@@ -0,0 +1,36 @@
+package org.acme.schooltimetabling.benchmark;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import org.acme.schooltimetabling.domain.Roster;
+import org.optaplanner.benchmark.api.PlannerBenchmark;
+import org.optaplanner.benchmark.api.PlannerBenchmarkFactory;
+
+/**
+ * Runs the OptaPlanner Benchmarker over the generated roster datasets, comparing the
+ * solver configurations of rosterBenchmarkConfig.xml.
+ *
+ * Arguments: the datasets to use (small, medium, large), all of them by default.
+ * System property roster.benchmark.config selects another benchmark config resource,
+ * e.g. rosterMoveThreadBenchmarkConfig.xml to compare NONE with 2, 4 and AUTO move threads
+ * (not measured yet, so move threads stay off by default).
+ */
+public class RosterBenchmarkApp {
+
+    static final String BENCHMARK_CONFIG_RESOURCE_PREFIX = "org/acme/schooltimetabling/benchmark/";
+    static final String DEFAULT_BENCHMARK_CONFIG = "rosterBenchmarkConfig.xml";
+
+    public static void main(String[] args) {
+        Roster[] problems = (args.length == 0 ? Arrays.stream(RosterDataset.values())
+                : Arrays.stream(args).map(arg -> RosterDataset.valueOf(arg.toUpperCase(Locale.ROOT))))
+                .map(RosterDataset::generate)
+                .toArray(Roster[]::new);
+
+        String benchmarkConfig = System.getProperty("roster.benchmark.config", DEFAULT_BENCHMARK_CONFIG);
+        PlannerBenchmarkFactory benchmarkFactory = PlannerBenchmarkFactory.createFromXmlResource(
+                BENCHMARK_CONFIG_RESOURCE_PREFIX + benchmarkConfig);
+        PlannerBenchmark benchmark = benchmarkFactory.buildPlannerBenchmark(problems);
+        benchmark.benchmarkAndShowReportInBrowser();
+    }
+}
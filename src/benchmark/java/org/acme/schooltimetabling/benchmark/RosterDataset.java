@@ -0,0 +1,36 @@
+package org.acme.schooltimetabling.benchmark;
+
+import org.acme.schooltimetabling.domain.Roster;
+
+/**
+ * Reproducible benchmark datasets, sized after real inputs of the main backend.
+ */
+public enum RosterDataset {
+
+    SMALL(50, 300, 7, 5, 1),
+    MEDIUM(300, 2_000, 14, 10, 2),
+    LARGE(2_000, 15_000, 28, 20, 4);
+
+    private static final long SEED = 37L;
+
+    private final int employeeCount;
+    private final int shiftCount;
+    private final int dayCount;
+    private final int patternCount;
+    private final int jobOrderCount;
+
+    RosterDataset(int employeeCount, int shiftCount, int dayCount, int patternCount, int jobOrderCount) {
+        this.employeeCount = employeeCount;
+        this.shiftCount = shiftCount;
+        this.dayCount = dayCount;
+        this.patternCount = patternCount;
+        this.jobOrderCount = jobOrderCount;
+    }
+
+    /**
+     * Generate the unsolved roster (always the same one for a dataset)
+     */
+    public Roster generate() {
+        return new RosterGenerator(SEED).generate(employeeCount, shiftCount, dayCount, patternCount, jobOrderCount);
+    }
+}
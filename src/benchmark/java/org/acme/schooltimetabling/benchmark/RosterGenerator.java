@@ -0,0 +1,105 @@
+package org.acme.schooltimetabling.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.acme.schooltimetabling.domain.Employee;
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.domain.Shift;
+
+/**
+ * Generates synthetic rosters shaped like the pre-processed input of the main backend:
+ * several shift patterns, shifts split into "_opening_X" entries and some overnight shifts.
+ *
+ * The same seed always produces the same roster, so benchmark runs are comparable.
+ */
+public class RosterGenerator {
+
+    private static final LocalDate START_DATE = LocalDate.of(2025, 5, 26);
+
+    // Last one crosses midnight
+    private static final String[] SHIFT_TIMES = {
+            "06:00 Am - 02:00 Pm",
+            "08:30 Am - 05:00 Pm",
+            "12:00 Pm - 08:00 Pm",
+            "02:00 Pm - 10:00 Pm",
+            "10:00 Pm - 06:00 Am"
+    };
+
+    private static final int MAX_OPENINGS_PER_SHIFT = 4;
+    private static final int MAX_PATTERNS_PER_EMPLOYEE = 3;
+
+    private final Random random;
+
+    public RosterGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Generate an unsolved roster.
+     *
+     * @param employeeCount number of employees
+     * @param shiftCount number of individual shift openings (after splitting)
+     * @param dayCount number of consecutive days the shifts are spread over
+     * @param patternCount number of distinct shift patterns
+     * @param jobOrderCount number of distinct job orders (0 = shifts have none)
+     */
+    public Roster generate(int employeeCount, int shiftCount, int dayCount, int patternCount, int jobOrderCount) {
+        List<Employee> employeeList = new ArrayList<>(employeeCount);
+        for (int i = 0; i < employeeCount; i++) {
+            int employeePatternCount = 1 + random.nextInt(Math.min(MAX_PATTERNS_PER_EMPLOYEE, patternCount));
+            List<String> shiftPatternIds = new ArrayList<>(employeePatternCount);
+            while (shiftPatternIds.size() < employeePatternCount) {
+                String shiftPatternId = patternId(random.nextInt(patternCount));
+                if (!shiftPatternIds.contains(shiftPatternId)) {
+                    shiftPatternIds.add(shiftPatternId);
+                }
+            }
+            String jobOrderId = jobOrderCount > 0 ? jobOrderId(random.nextInt(jobOrderCount)) : null;
+            employeeList.add(new Employee("ASSIGNMENT_" + i, "ASSOCIATE_" + i, shiftPatternIds, jobOrderId));
+        }
+
+        List<Shift> shiftList = new ArrayList<>(shiftCount);
+        int originalShiftIndex = 0;
+        while (shiftList.size() < shiftCount) {
+            String originalShiftDayId = "SHIFT_" + originalShiftIndex++;
+            int pattern = random.nextInt(patternCount);
+            String shiftTime = SHIFT_TIMES[pattern % SHIFT_TIMES.length];
+            LocalDate shiftDate = START_DATE.plusDays(random.nextInt(dayCount));
+            String jobOrderId = jobOrderCount > 0 ? jobOrderId(random.nextInt(jobOrderCount)) : null;
+            int openings = Math.min(1 + random.nextInt(MAX_OPENINGS_PER_SHIFT), shiftCount - shiftList.size());
+            for (int opening = 0; opening < openings; opening++) {
+                String shiftDayId = openings == 1 ? originalShiftDayId : originalShiftDayId + "_opening_" + opening;
+                Shift shift = new Shift(shiftDayId, originalShiftDayId, patternId(pattern),
+                        "Pattern " + pattern, shiftTime, shiftDate);
+                shift.setJobOrderId(jobOrderId);
+                shiftList.add(shift);
+            }
+        }
+
+        Roster roster = new Roster(employeeList, shiftList);
+        roster.buildIndexes();
+        return roster;
+    }
+
+    /**
+     * Assign a random eligible employee (or none, if nobody is eligible) to every shift
+     */
+    public void assignRandomly(Roster roster) {
+        for (Shift shift : roster.getShiftList()) {
+            List<Employee> eligibleEmployeeList = shift.getEligibleEmployeeList();
+            shift.setAssignedEmployee(eligibleEmployeeList.isEmpty() ? null
+                    : eligibleEmployeeList.get(random.nextInt(eligibleEmployeeList.size())));
+        }
+    }
+
+    private static String patternId(int pattern) {
+        return "PATTERN_" + pattern;
+    }
+
+    private static String jobOrderId(int jobOrder) {
+        return "JOB_ORDER_" + jobOrder;
+    }
+}
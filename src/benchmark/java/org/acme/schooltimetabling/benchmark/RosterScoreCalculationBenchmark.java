@@ -0,0 +1,124 @@
+package org.acme.schooltimetabling.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.acme.schooltimetabling.domain.Employee;
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.domain.Shift;
+import org.acme.schooltimetabling.solver.RosterIncrementalScoreCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.impl.score.director.InnerScoreDirector;
+import org.optaplanner.core.impl.solver.DefaultSolverFactory;
+
+/**
+ * Score calculation speed of RosterConstraintProvider, per constraint and for all of them,
+ * and of RosterIncrementalScoreCalculator (all constraints, constraintName=INCREMENTAL).
+ *
+ * fullScoreCalculation rebuilds the score from scratch (what happens on solver start),
+ * incrementalScoreCalculation reassigns one shift and recalculates (what every move does).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RosterScoreCalculationBenchmark {
+
+    private static final long SEED = 37L;
+    private static final String INCREMENTAL_SCORE_CALCULATOR = "INCREMENTAL";
+
+    @Param({ "200", "2000" })
+    int employeeCount;
+
+    @Param({ "2000", "20000" })
+    int shiftCount;
+
+    @Param({ "14" })
+    int dayCount;
+
+    @Param({ "10" })
+    int patternCount;
+
+    // 0 leaves the job order constraint empty, 4 gives it matches to score
+    @Param({ "0", "4" })
+    int jobOrderCount;
+
+    @Param({ SelectedConstraintProvider.ALL_CONSTRAINTS,
+            INCREMENTAL_SCORE_CALCULATOR,
+            "Employee cannot work overlapping shifts",
+            "Employee cannot work incompatible shift pattern",
+            "Employee must match shift job order",
+            "Prefer fewer unassigned shifts" })
+    String constraintName;
+
+    private Roster roster;
+    private InnerScoreDirector<Roster, HardMediumSoftScore> scoreDirector;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RosterGenerator generator = new RosterGenerator(SEED);
+        roster = generator.generate(employeeCount, shiftCount, dayCount, patternCount, jobOrderCount);
+        generator.assignRandomly(roster);
+
+        SolverConfig solverConfig = new SolverConfig()
+                .withSolutionClass(Roster.class)
+                .withEntityClasses(Shift.class);
+        if (INCREMENTAL_SCORE_CALCULATOR.equals(constraintName)) {
+            solverConfig.setScoreDirectorFactoryConfig(new ScoreDirectorFactoryConfig()
+                    .withIncrementalScoreCalculatorClass(RosterIncrementalScoreCalculator.class));
+        } else {
+            SelectedConstraintProvider.select(constraintName);
+            solverConfig.setScoreDirectorFactoryConfig(new ScoreDirectorFactoryConfig()
+                    .withConstraintProviderClass(SelectedConstraintProvider.class));
+        }
+        DefaultSolverFactory<Roster> solverFactory = (DefaultSolverFactory<Roster>) SolverFactory.<Roster> create(solverConfig);
+        scoreDirector = (InnerScoreDirector<Roster, HardMediumSoftScore>) solverFactory.getScoreDirectorFactory()
+                .buildScoreDirector(false, false);
+        scoreDirector.setWorkingSolution(roster);
+        scoreDirector.calculateScore();
+        random = new Random(SEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        scoreDirector.close();
+    }
+
+    @Benchmark
+    public HardMediumSoftScore fullScoreCalculation() {
+        scoreDirector.setWorkingSolution(roster);
+        return scoreDirector.calculateScore();
+    }
+
+    @Benchmark
+    public HardMediumSoftScore incrementalScoreCalculation() {
+        Shift shift = roster.getShiftList().get(random.nextInt(shiftCount));
+        List<Employee> eligibleEmployeeList = shift.getEligibleEmployeeList();
+        Employee employee = eligibleEmployeeList.isEmpty() ? null
+                : eligibleEmployeeList.get(random.nextInt(eligibleEmployeeList.size()));
+        scoreDirector.beforeVariableChanged(shift, "assignedEmployee");
+        shift.setAssignedEmployee(employee);
+        scoreDirector.afterVariableChanged(shift, "assignedEmployee");
+        return scoreDirector.calculateScore();
+    }
+}
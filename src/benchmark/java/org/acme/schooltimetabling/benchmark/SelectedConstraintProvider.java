@@ -0,0 +1,43 @@
+package org.acme.schooltimetabling.benchmark;
+
+import java.util.Arrays;
+
+import org.acme.schooltimetabling.solver.RosterConstraintProvider;
+import org.optaplanner.core.api.score.stream.Constraint;
+import org.optaplanner.core.api.score.stream.ConstraintFactory;
+import org.optaplanner.core.api.score.stream.ConstraintProvider;
+
+/**
+ * Wraps RosterConstraintProvider to keep only one of its constraints, so each
+ * constraint's score calculation speed can be measured on its own.
+ *
+ * OptaPlanner instantiates constraint providers by class, hence the static selection:
+ * call {@link #select(String)} before building the solver factory.
+ */
+public class SelectedConstraintProvider implements ConstraintProvider {
+
+    public static final String ALL_CONSTRAINTS = "ALL";
+
+    private static volatile String selectedConstraintName = ALL_CONSTRAINTS;
+
+    public static void select(String constraintName) {
+        selectedConstraintName = constraintName;
+    }
+
+    @Override
+    public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
+        Constraint[] constraints = new RosterConstraintProvider().defineConstraints(constraintFactory);
+        String constraintName = selectedConstraintName;
+        if (ALL_CONSTRAINTS.equals(constraintName)) {
+            return constraints;
+        }
+        Constraint[] selectedConstraints = Arrays.stream(constraints)
+                .filter(constraint -> constraint.getConstraintName().equals(constraintName))
+                .toArray(Constraint[]::new);
+        if (selectedConstraints.length == 0) {
+            throw new IllegalArgumentException("No constraint named \"" + constraintName + "\" in "
+                    + RosterConstraintProvider.class.getSimpleName());
+        }
+        return selectedConstraints;
+    }
+}
@@ -1,18 +1,28 @@
 package org.acme.schooltimetabling.domain;
 
+import java.util.BitSet;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.optaplanner.core.api.domain.lookup.PlanningId;
+
 /**
  * SIMPLIFIED Employee domain - only what's needed for optimization
  * Data filtering/validation is handled in main backend
  */
 public class Employee {
 
-    private String assignmentId;     // For output mapping
+    @PlanningId
+    private String assignmentId;     // For output mapping (unique, also used to look up employees in problem changes)
     private String associateId;      // For constraint matching  
     private List<String> shiftPatternIds; // Which patterns this employee can work
     private String jobOrderId;       // Must match shift's role requirements
 
+    // Interned eligibility index: bit N set = can work the pattern with ordinal N
+    // (built by Roster.buildIndexes(), null until then)
+    private BitSet shiftPatternMask;
+    private int jobOrderOrdinal = -1; // Interned job order (-1 = none or not indexed)
+
     // Constructors
     public Employee() {}
 
@@ -31,10 +41,24 @@ public class Employee {
     public void setAssociateId(String associateId) { this.associateId = associateId; }
 
     public List<String> getShiftPatternIds() { return shiftPatternIds; }
-    public void setShiftPatternIds(List<String> shiftPatternIds) { this.shiftPatternIds = shiftPatternIds; }
+    public void setShiftPatternIds(List<String> shiftPatternIds) {
+        this.shiftPatternIds = shiftPatternIds;
+        this.shiftPatternMask = null; // Stale until the roster is re-indexed
+    }
 
     public String getJobOrderId() { return jobOrderId; }
-    public void setJobOrderId(String jobOrderId) { this.jobOrderId = jobOrderId; }
+    public void setJobOrderId(String jobOrderId) {
+        this.jobOrderId = jobOrderId;
+        this.jobOrderOrdinal = -1; // Stale until the roster is re-indexed
+    }
+
+    @JsonIgnore
+    public int getJobOrderOrdinal() { return jobOrderOrdinal; }
+    public void setJobOrderOrdinal(int jobOrderOrdinal) { this.jobOrderOrdinal = jobOrderOrdinal; }
+
+    @JsonIgnore
+    public BitSet getShiftPatternMask() { return shiftPatternMask; }
+    public void setShiftPatternMask(BitSet shiftPatternMask) { this.shiftPatternMask = shiftPatternMask; }
 
     /**
      * Check if employee can work a specific shift pattern
@@ -43,6 +67,33 @@ public class Employee {
         return shiftPatternIds != null && shiftPatternIds.contains(shiftPatternId);
     }
 
+    /**
+     * Check if employee can work the shift's pattern.
+     * A single bit test once the roster is indexed, String lookup otherwise.
+     */
+    public boolean canWorkShift(Shift shift) {
+        int shiftPatternOrdinal = shift.getShiftPatternOrdinal();
+        if (shiftPatternMask != null && shiftPatternOrdinal >= 0) {
+            return shiftPatternMask.get(shiftPatternOrdinal);
+        }
+        return canWorkShiftPattern(shift.getShiftPatternId());
+    }
+
+    /**
+     * Check if employee has the job order the shift requires
+     * (shifts without a job order accept anyone)
+     */
+    public boolean matchesJobOrder(Shift shift) {
+        if (shift.getJobOrderId() == null) {
+            return true;
+        }
+        int shiftJobOrderOrdinal = shift.getJobOrderOrdinal();
+        if (shiftJobOrderOrdinal >= 0 && jobOrderOrdinal >= 0) {
+            return shiftJobOrderOrdinal == jobOrderOrdinal;
+        }
+        return shift.getJobOrderId().equals(jobOrderId);
+    }
+
     @Override
     public String toString() {
         return "Employee{assignmentId='" + assignmentId + "', associateId='" + associateId + "'}";
@@ -0,0 +1,27 @@
+package org.acme.schooltimetabling.domain;
+
+import java.util.Comparator;
+
+/**
+ * Orders employees from weak to strong: an employee who can work more shift
+ * patterns is stronger (more flexible), so weakest-fit assigns the least
+ * flexible employees first and keeps the flexible ones available.
+ */
+public class EmployeeStrengthComparator implements Comparator<Employee> {
+
+    private static final Comparator<Employee> COMPARATOR =
+            Comparator.comparingInt(EmployeeStrengthComparator::shiftPatternCount)
+                    .thenComparing(Employee::getAssignmentId);
+
+    @Override
+    public int compare(Employee a, Employee b) {
+        return COMPARATOR.compare(a, b);
+    }
+
+    private static int shiftPatternCount(Employee employee) {
+        if (employee.getShiftPatternMask() != null) {
+            return employee.getShiftPatternMask().cardinality();
+        }
+        return employee.getShiftPatternIds() != null ? employee.getShiftPatternIds().size() : 0;
+    }
+}
@@ -1,13 +1,18 @@
 package org.acme.schooltimetabling.domain;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.optaplanner.core.api.domain.solution.PlanningEntityCollectionProperty;
 import org.optaplanner.core.api.domain.solution.PlanningScore;
 import org.optaplanner.core.api.domain.solution.PlanningSolution;
 import org.optaplanner.core.api.domain.solution.ProblemFactCollectionProperty;
-import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
-import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
 
 /**
  * Represents a roster for scheduling shifts for employees.
@@ -23,12 +28,11 @@ public class Roster {
 
     /**
      * List of available employees who can be assigned to shifts.
-     * This is a value range provider - OptaPlanner will pick from these
-     * employees when assigning them to shift planning variables.
+     * OptaPlanner picks from each shift's eligible subset of these
+     * employees (see Shift.getEligibleEmployeeList()).
      * 
      * These are problem facts because they don't change during solving.
      */
-    @ValueRangeProvider
     @ProblemFactCollectionProperty
     private List<Employee> employeeList;
 
@@ -46,10 +50,27 @@ public class Roster {
      * The score representing the quality of this roster solution.
      * Higher scores are better. Hard constraints must be satisfied (score >=
      * 0hard).
+     * Medium counts unassigned shifts, so a partial roster beats an infeasible one.
      * Soft constraints are preferences that improve the score.
      */
     @PlanningScore
-    private HardSoftScore score;
+    private HardMediumSoftScore score;
+
+    /**
+     * Optional per-request solver settings (not used by the constraints)
+     */
+    private SolverOptions solverOptions;
+
+    /**
+     * Dense dictionary of shift pattern IDs, so eligibility is a bit test.
+     * Append-only: ordinals stay valid when new patterns are interned.
+     */
+    private Map<String, Integer> shiftPatternOrdinalMap;
+
+    /**
+     * Dense dictionary of job order IDs (append-only, like the patterns)
+     */
+    private Map<String, Integer> jobOrderOrdinalMap;
 
     public Roster() {
         // Default constructor required by OptaPlanner
@@ -72,10 +93,14 @@ public class Roster {
         return shiftList;
     }
 
-    public HardSoftScore getScore() {
+    public HardMediumSoftScore getScore() {
         return score;
     }
 
+    public SolverOptions getSolverOptions() {
+        return solverOptions;
+    }
+
     // Setters
     public void setEmployeeList(List<Employee> employeeList) {
         this.employeeList = employeeList;
@@ -85,10 +110,310 @@ public class Roster {
         this.shiftList = shiftList;
     }
 
-    public void setScore(HardSoftScore score) {
+    public void setScore(HardMediumSoftScore score) {
         this.score = score;
     }
 
+    public void setSolverOptions(SolverOptions solverOptions) {
+        this.solverOptions = solverOptions;
+    }
+
+    /**
+     * Intern shift pattern and job order IDs and (re)build the eligibility
+     * indexes: each shift gets its pattern and job order ordinals, each
+     * employee its job order ordinal and a bitset of the pattern ordinals it
+     * can work, and each shift the list of employees eligible for it
+     * (its value range).
+     * Pre-assigned employees (e.g. from a previous solution) are rebound to
+     * the instances of employeeList by assignmentId, or dropped if absent.
+     * 
+     * Must be called before solving. While solving, problem changes use
+     * indexShift(), addEmployee() and removeEmployee() instead, which leave
+     * the instances shared with best solutions untouched.
+     */
+    public void buildIndexes() {
+        if (shiftPatternOrdinalMap == null) {
+            shiftPatternOrdinalMap = new HashMap<>();
+        }
+        if (jobOrderOrdinalMap == null) {
+            jobOrderOrdinalMap = new HashMap<>();
+        }
+        if (shiftList != null) {
+            for (Shift shift : shiftList) {
+                shift.setShiftPatternOrdinal(intern(shiftPatternOrdinalMap, shift.getShiftPatternId()));
+                shift.setJobOrderOrdinal(intern(jobOrderOrdinalMap, shift.getJobOrderId()));
+            }
+            rebindAssignedEmployees();
+        }
+        if (employeeList != null) {
+            for (Employee employee : employeeList) {
+                indexEmployee(employee);
+            }
+        }
+        buildEligibleEmployeeLists();
+    }
+
+    /**
+     * Intern the employee's patterns (also those no shift has yet, so a shift
+     * added later needs no new bitsets) and job order, and build its bitset
+     */
+    private void indexEmployee(Employee employee) {
+        employee.setJobOrderOrdinal(intern(jobOrderOrdinalMap, employee.getJobOrderId()));
+        BitSet shiftPatternMask = new BitSet(shiftPatternOrdinalMap.size());
+        if (employee.getShiftPatternIds() != null) {
+            for (String shiftPatternId : employee.getShiftPatternIds()) {
+                int ordinal = intern(shiftPatternOrdinalMap, shiftPatternId);
+                if (ordinal >= 0) {
+                    shiftPatternMask.set(ordinal);
+                }
+            }
+        }
+        employee.setShiftPatternMask(shiftPatternMask);
+    }
+
+    /**
+     * Index a shift added to an indexed roster (e.g. by a problem change):
+     * its ordinals, its assigned employee and a new eligible employee list
+     */
+    public void indexShift(Shift shift) {
+        shiftPatternOrdinalMap = internCopyOnWrite(shiftPatternOrdinalMap, shift.getShiftPatternId());
+        jobOrderOrdinalMap = internCopyOnWrite(jobOrderOrdinalMap, shift.getJobOrderId());
+        shift.setShiftPatternOrdinal(intern(shiftPatternOrdinalMap, shift.getShiftPatternId()));
+        shift.setJobOrderOrdinal(intern(jobOrderOrdinalMap, shift.getJobOrderId()));
+        if (shift.getAssignedEmployee() != null) {
+            shift.setAssignedEmployee(findEmployee(shift.getAssignedEmployee().getAssignmentId()));
+        }
+        List<Employee> eligibleEmployeeList = new ArrayList<>();
+        if (employeeList != null) {
+            for (Employee employee : employeeList) {
+                if (employee.canWorkShift(shift) && employee.matchesJobOrder(shift)) {
+                    eligibleEmployeeList.add(employee);
+                }
+            }
+        }
+        shift.setEligibleEmployeeList(eligibleEmployeeList);
+    }
+
+    /**
+     * Add a new employee to an indexed roster (e.g. by a problem change).
+     * The employee list and the eligible lists that gain the employee are
+     * replaced by copies, never changed in place: best solutions share them.
+     */
+    public void addEmployee(Employee employee) {
+        if (employee.getShiftPatternIds() != null) {
+            for (String shiftPatternId : employee.getShiftPatternIds()) {
+                shiftPatternOrdinalMap = internCopyOnWrite(shiftPatternOrdinalMap, shiftPatternId);
+            }
+        }
+        jobOrderOrdinalMap = internCopyOnWrite(jobOrderOrdinalMap, employee.getJobOrderId());
+        indexEmployee(employee);
+        List<Employee> newEmployeeList = employeeList != null ? new ArrayList<>(employeeList) : new ArrayList<>();
+        newEmployeeList.add(employee);
+        employeeList = newEmployeeList;
+        if (shiftList == null) {
+            return;
+        }
+        // Shifts sharing an eligible list share its pattern, the job order may differ
+        Map<List<Employee>, Map<Integer, List<Employee>>> newEligibleListMap = new IdentityHashMap<>();
+        for (Shift shift : shiftList) {
+            List<Employee> eligibleEmployeeList = shift.getEligibleEmployeeList();
+            if (eligibleEmployeeList == null || !employee.canWorkShift(shift) || !employee.matchesJobOrder(shift)) {
+                continue;
+            }
+            shift.setEligibleEmployeeList(newEligibleListMap
+                    .computeIfAbsent(eligibleEmployeeList, list -> new HashMap<>())
+                    .computeIfAbsent(shift.getJobOrderOrdinal(), jobOrderOrdinal -> {
+                        List<Employee> newEligibleEmployeeList = new ArrayList<>(eligibleEmployeeList);
+                        newEligibleEmployeeList.add(employee);
+                        return newEligibleEmployeeList;
+                    }));
+        }
+    }
+
+    /**
+     * Remove an employee from an indexed roster (e.g. by a problem change,
+     * after unassigning their shifts). Like addEmployee(), the changed lists
+     * are replaced by copies.
+     */
+    public void removeEmployee(Employee employee) {
+        if (employeeList != null) {
+            List<Employee> newEmployeeList = new ArrayList<>(employeeList);
+            newEmployeeList.remove(employee);
+            employeeList = newEmployeeList;
+        }
+        if (shiftList == null) {
+            return;
+        }
+        Map<List<Employee>, List<Employee>> newEligibleListMap = new IdentityHashMap<>();
+        for (Shift shift : shiftList) {
+            List<Employee> eligibleEmployeeList = shift.getEligibleEmployeeList();
+            if (eligibleEmployeeList == null) {
+                continue;
+            }
+            shift.setEligibleEmployeeList(newEligibleListMap.computeIfAbsent(eligibleEmployeeList, list -> {
+                if (!list.contains(employee)) {
+                    return list;
+                }
+                List<Employee> newEligibleEmployeeList = new ArrayList<>(list);
+                newEligibleEmployeeList.remove(employee);
+                return newEligibleEmployeeList;
+            }));
+        }
+    }
+
+    private void buildEligibleEmployeeLists() {
+        if (shiftList == null || employeeList == null) {
+            return;
+        }
+        List<List<Employee>> eligibleEmployeesByPattern = new ArrayList<>(shiftPatternOrdinalMap.size());
+        for (int i = 0; i < shiftPatternOrdinalMap.size(); i++) {
+            eligibleEmployeesByPattern.add(new ArrayList<>());
+        }
+        for (Employee employee : employeeList) {
+            BitSet shiftPatternMask = employee.getShiftPatternMask();
+            for (int ordinal = shiftPatternMask.nextSetBit(0); ordinal >= 0;
+                    ordinal = shiftPatternMask.nextSetBit(ordinal + 1)) {
+                eligibleEmployeesByPattern.get(ordinal).add(employee);
+            }
+        }
+        // Shifts requiring a job order share one filtered list per (pattern, job order)
+        Map<Long, List<Employee>> eligibleEmployeesByPatternAndJobOrder = new HashMap<>();
+        for (Shift shift : shiftList) {
+            int ordinal = shift.getShiftPatternOrdinal();
+            List<Employee> eligibleEmployeeList = ordinal >= 0 ? eligibleEmployeesByPattern.get(ordinal) : new ArrayList<>();
+            if (shift.getJobOrderId() != null && !eligibleEmployeeList.isEmpty()) {
+                List<Employee> patternEmployeeList = eligibleEmployeeList;
+                long key = ((long) ordinal << 32) | (shift.getJobOrderOrdinal() & 0xFFFFFFFFL);
+                eligibleEmployeeList = eligibleEmployeesByPatternAndJobOrder.computeIfAbsent(key,
+                        k -> filterByJobOrder(patternEmployeeList, shift));
+            }
+            // Nobody qualifies: empty range, the shift stays unassigned
+            shift.setEligibleEmployeeList(eligibleEmployeeList);
+        }
+    }
+
+    private static List<Employee> filterByJobOrder(List<Employee> employeeList, Shift shift) {
+        List<Employee> filteredEmployeeList = new ArrayList<>();
+        for (Employee employee : employeeList) {
+            if (employee.matchesJobOrder(shift)) {
+                filteredEmployeeList.add(employee);
+            }
+        }
+        return filteredEmployeeList;
+    }
+
+    private void rebindAssignedEmployees() {
+        Map<String, Employee> employeeMap = new HashMap<>();
+        if (employeeList != null) {
+            for (Employee employee : employeeList) {
+                employeeMap.put(employee.getAssignmentId(), employee);
+            }
+        }
+        for (Shift shift : shiftList) {
+            Employee assignedEmployee = shift.getAssignedEmployee();
+            if (assignedEmployee != null) {
+                shift.setAssignedEmployee(employeeMap.get(assignedEmployee.getAssignmentId()));
+            }
+        }
+    }
+
+    /**
+     * Prepare a previous solution for re-solving: pin every assignment outside
+     * [windowStart, windowEnd] that is still valid, so only the window is
+     * reoptimized. A missing bound leaves that side of the window open.
+     * Without any bound, the window spans the dates of the unassigned shifts
+     * (e.g. those of an employee who dropped out), one day wider on each side
+     * for overnight shifts.
+     * 
+     * Call after buildIndexes(). Shifts the client already pinned stay pinned.
+     * 
+     * @return the number of pinned shifts
+     */
+    public int pinAssignmentsOutsideWindow(LocalDate windowStart, LocalDate windowEnd) {
+        if (shiftList == null) {
+            return 0;
+        }
+        boolean hasWindow = windowStart != null || windowEnd != null;
+        if (!hasWindow) {
+            for (Shift shift : shiftList) {
+                if (shift.getAssignedEmployee() == null && shift.getShiftDate() != null) {
+                    LocalDate shiftDate = shift.getShiftDate();
+                    if (windowStart == null || shiftDate.minusDays(1).isBefore(windowStart)) {
+                        windowStart = shiftDate.minusDays(1);
+                    }
+                    if (windowEnd == null || shiftDate.plusDays(1).isAfter(windowEnd)) {
+                        windowEnd = shiftDate.plusDays(1);
+                    }
+                    hasWindow = true;
+                }
+            }
+        }
+        int pinnedCount = 0;
+        for (Shift shift : shiftList) {
+            Employee assignedEmployee = shift.getAssignedEmployee();
+            LocalDate shiftDate = shift.getShiftDate();
+            boolean insideWindow = hasWindow && shiftDate != null
+                    && (windowStart == null || !shiftDate.isBefore(windowStart))
+                    && (windowEnd == null || !shiftDate.isAfter(windowEnd));
+            if (!shift.isPinned() && assignedEmployee != null && !insideWindow
+                    && assignedEmployee.canWorkShift(shift) && assignedEmployee.matchesJobOrder(shift)) {
+                shift.setPinned(true);
+            }
+            if (shift.isPinned()) {
+                pinnedCount++;
+            }
+        }
+        return pinnedCount;
+    }
+
+    private static int intern(Map<String, Integer> ordinalMap, String id) {
+        if (id == null) {
+            return -1;
+        }
+        return ordinalMap.computeIfAbsent(id, key -> ordinalMap.size());
+    }
+
+    /**
+     * The ordinal map itself if it already has the ID, else a copy with the
+     * ID interned: best solutions share the map with the working solution
+     */
+    private static Map<String, Integer> internCopyOnWrite(Map<String, Integer> ordinalMap, String id) {
+        if (id == null || ordinalMap.containsKey(id)) {
+            return ordinalMap;
+        }
+        Map<String, Integer> newOrdinalMap = new HashMap<>(ordinalMap);
+        intern(newOrdinalMap, id);
+        return newOrdinalMap;
+    }
+
+    /**
+     * Find a shift by its shiftDayId, null if absent
+     */
+    public Shift findShift(String shiftDayId) {
+        if (shiftList != null) {
+            for (Shift shift : shiftList) {
+                if (shift.getShiftDayId().equals(shiftDayId)) {
+                    return shift;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find an employee by its assignmentId, null if absent
+     */
+    public Employee findEmployee(String assignmentId) {
+        if (employeeList != null) {
+            for (Employee employee : employeeList) {
+                if (employee.getAssignmentId().equals(assignmentId)) {
+                    return employee;
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Gets the number of shifts that have been assigned to employees
      */
@@ -3,23 +3,34 @@ package org.acme.schooltimetabling.domain;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.optaplanner.core.api.domain.entity.PlanningEntity;
+import org.optaplanner.core.api.domain.entity.PlanningPin;
 import org.optaplanner.core.api.domain.lookup.PlanningId;
+import org.optaplanner.core.api.domain.valuerange.ValueRangeProvider;
 import org.optaplanner.core.api.domain.variable.PlanningVariable;
 
 /**
  * IMPROVED Shift domain with separate date and time handling
  * This allows for more precise constraint checking
  */
-@PlanningEntity
+@PlanningEntity(difficultyComparatorClass = ShiftDifficultyComparator.class)
 public class Shift {
 
+    private static final long MINUTES_PER_DAY = 24L * 60L;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MMM/yyyy");
+
     @PlanningId
     private String shiftDayId; // Unique ID (may include "_opening_X" suffix)
 
     private String originalShiftDayId; // Original ID for output mapping
     private String shiftPatternId; // Pattern type
     private String shiftPatternName; // Human-readable name
+    private int shiftPatternOrdinal = -1; // Interned pattern, see Roster.buildIndexes()
+    private String jobOrderId; // Role required (null = any job order)
+    private int jobOrderOrdinal = -1; // Interned job order, see Roster.buildIndexes()
 
     // SEPARATE DATE AND TIME for better constraint handling
     private LocalDate shiftDate; // Just the date (2025-05-26)
@@ -27,13 +38,35 @@ public class Shift {
     private LocalTime startTime; // Parsed start time (08:30)
     private LocalTime endTime; // Parsed end time (21:30)
 
+    // ABSOLUTE TIMES as epoch minutes, so overlap checks are two long compares
+    // (end is on the next day for overnight shifts; start == end if unparseable)
+    private long startMinute;
+    private long endMinute;
+
+    /**
+     * Pinned shifts keep their assignment (used when re-solving a previous solution)
+     */
+    @PlanningPin
+    private boolean pinned;
+
     private int openings = 1; // Always 1 for individual shifts
     private int currentNumConfirmedShifts = 0; // Always 0 for unassigned shifts
 
     /**
-     * The employee assigned to this shift (OptaPlanner will modify this)
+     * Employees eligible for this shift, so the solver never tries anyone else.
+     * Shared between all shifts with the same pattern and job order
+     * (see Roster.buildIndexes()).
      */
-    @PlanningVariable
+    @ValueRangeProvider(id = "eligibleEmployeeRange")
+    private List<Employee> eligibleEmployeeList;
+
+    /**
+     * The employee assigned to this shift (OptaPlanner will modify this).
+     * Nullable: when demand exceeds supply the shift stays unassigned
+     * (a medium penalty) instead of breaking a hard constraint.
+     */
+    @PlanningVariable(valueRangeProviderRefs = "eligibleEmployeeRange", nullable = true,
+            strengthComparatorClass = EmployeeStrengthComparator.class)
     private Employee assignedEmployee;
 
     // Constructors
@@ -51,6 +84,32 @@ public class Shift {
 
         // Parse start and end times from shiftTime string
         parseShiftTimes();
+        updateAbsoluteTimes();
+    }
+
+    /**
+     * Copy constructor (e.g. for a partition of the roster), shares the
+     * employees and the eligible value range, no re-parsing
+     */
+    public Shift(Shift original) {
+        this.shiftDayId = original.shiftDayId;
+        this.originalShiftDayId = original.originalShiftDayId;
+        this.shiftPatternId = original.shiftPatternId;
+        this.shiftPatternName = original.shiftPatternName;
+        this.shiftPatternOrdinal = original.shiftPatternOrdinal;
+        this.jobOrderId = original.jobOrderId;
+        this.jobOrderOrdinal = original.jobOrderOrdinal;
+        this.shiftDate = original.shiftDate;
+        this.shiftTime = original.shiftTime;
+        this.startTime = original.startTime;
+        this.endTime = original.endTime;
+        this.startMinute = original.startMinute;
+        this.endMinute = original.endMinute;
+        this.pinned = original.pinned;
+        this.openings = original.openings;
+        this.currentNumConfirmedShifts = original.currentNumConfirmedShifts;
+        this.eligibleEmployeeList = original.eligibleEmployeeList;
+        this.assignedEmployee = original.assignedEmployee;
     }
 
     /**
@@ -58,52 +117,32 @@ public class Shift {
      * Example: "08:30 Am - 09:30 Pm" -> startTime: 08:30, endTime: 21:30
      */
     private void parseShiftTimes() {
-        if (shiftTime == null || !shiftTime.contains(" - ")) {
-            System.err.println("Invalid shift time format: " + shiftTime);
-            return;
-        }
+        applyTimeRange(ShiftTimeRange.of(shiftTime));
+    }
 
-        try {
-            String[] parts = shiftTime.split(" - ");
-            if (parts.length != 2) {
-                System.err.println("Could not split shift time: " + shiftTime);
-                return;
-            }
-
-            this.startTime = parseTimeString(parts[0].trim());
-            this.endTime = parseTimeString(parts[1].trim());
-
-            // Handle overnight shifts (end time before start time)
-            if (endTime.isBefore(startTime)) {
-                System.out.println("Detected overnight shift: " + shiftTime);
-                // For overnight shifts, you might want to adjust the logic
-                // For now, we'll keep as-is but log it
-            }
-
-        } catch (Exception e) {
-            System.err.println("Error parsing shift times from: " + shiftTime + " - " + e.getMessage());
-        }
+    private void applyTimeRange(ShiftTimeRange timeRange) {
+        this.startTime = timeRange.getStartTime();
+        this.endTime = timeRange.getEndTime();
     }
 
     /**
-     * Parse individual time string like "08:30 Am" or "09:30 Pm"
+     * Recompute startMinute/endMinute from shiftDate, startTime and endTime.
+     * Overnight shifts end on the day after shiftDate.
+     * A shift without a date is treated as being on the epoch day, so
+     * date-less shifts still compare by time of day.
      */
-    private LocalTime parseTimeString(String timeStr) {
-        try {
-            // Handle different formats
-            timeStr = timeStr.replace("Am", "AM").replace("Pm", "PM");
-
-            if (timeStr.contains("AM") || timeStr.contains("PM")) {
-                // 12-hour format
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("hh:mm a");
-                return LocalTime.parse(timeStr, formatter);
-            } else {
-                // 24-hour format fallback
-                return LocalTime.parse(timeStr);
-            }
-        } catch (Exception e) {
-            System.err.println("Could not parse time: " + timeStr + " - " + e.getMessage());
-            return LocalTime.of(0, 0); // Default fallback
+    private void updateAbsoluteTimes() {
+        if (startTime == null || endTime == null) {
+            // Empty interval: never overlaps anything
+            startMinute = 0L;
+            endMinute = 0L;
+            return;
+        }
+        long dayStartMinute = shiftDate != null ? shiftDate.toEpochDay() * MINUTES_PER_DAY : 0L;
+        startMinute = dayStartMinute + startTime.getHour() * 60 + startTime.getMinute();
+        endMinute = dayStartMinute + endTime.getHour() * 60 + endTime.getMinute();
+        if (endTime.isBefore(startTime)) {
+            endMinute += MINUTES_PER_DAY;
         }
     }
 
@@ -130,6 +169,34 @@ public class Shift {
 
     public void setShiftPatternId(String shiftPatternId) {
         this.shiftPatternId = shiftPatternId;
+        this.shiftPatternOrdinal = -1; // Stale until the roster is re-indexed
+    }
+
+    @JsonIgnore
+    public int getShiftPatternOrdinal() {
+        return shiftPatternOrdinal;
+    }
+
+    public void setShiftPatternOrdinal(int shiftPatternOrdinal) {
+        this.shiftPatternOrdinal = shiftPatternOrdinal;
+    }
+
+    public String getJobOrderId() {
+        return jobOrderId;
+    }
+
+    public void setJobOrderId(String jobOrderId) {
+        this.jobOrderId = jobOrderId;
+        this.jobOrderOrdinal = -1; // Stale until the roster is re-indexed
+    }
+
+    @JsonIgnore
+    public int getJobOrderOrdinal() {
+        return jobOrderOrdinal;
+    }
+
+    public void setJobOrderOrdinal(int jobOrderOrdinal) {
+        this.jobOrderOrdinal = jobOrderOrdinal;
     }
 
     public String getShiftPatternName() {
@@ -146,6 +213,7 @@ public class Shift {
 
     public void setShiftDate(LocalDate shiftDate) {
         this.shiftDate = shiftDate;
+        updateAbsoluteTimes();
     }
 
     public String getShiftTime() {
@@ -155,6 +223,22 @@ public class Shift {
     public void setShiftTime(String shiftTime) {
         this.shiftTime = shiftTime;
         parseShiftTimes(); // Re-parse when time string changes
+        updateAbsoluteTimes();
+    }
+
+    /**
+     * Set the date and an already parsed time range (e.g. one shared by all
+     * the shifts with the same shiftTime string, null = unchanged) together,
+     * without re-parsing and computing the absolute times once
+     */
+    @JsonIgnore
+    public void setShiftDateAndTimeRange(LocalDate shiftDate, ShiftTimeRange timeRange) {
+        this.shiftDate = shiftDate;
+        if (timeRange != null) {
+            this.shiftTime = timeRange.getShiftTime();
+            applyTimeRange(timeRange);
+        }
+        updateAbsoluteTimes();
     }
 
     public LocalTime getStartTime() {
@@ -165,6 +249,38 @@ public class Shift {
         return endTime;
     }
 
+    /**
+     * Absolute start as minutes since 1970-01-01T00:00
+     */
+    @JsonIgnore
+    public long getStartMinute() {
+        return startMinute;
+    }
+
+    /**
+     * Absolute end as minutes since 1970-01-01T00:00 (next day for overnight shifts)
+     */
+    @JsonIgnore
+    public long getEndMinute() {
+        return endMinute;
+    }
+
+    /**
+     * Check if this shift ends on the day after it starts
+     */
+    @JsonIgnore
+    public boolean isOvernight() {
+        return startTime != null && endTime != null && endTime.isBefore(startTime);
+    }
+
+    public boolean isPinned() {
+        return pinned;
+    }
+
+    public void setPinned(boolean pinned) {
+        this.pinned = pinned;
+    }
+
     public int getOpenings() {
         return openings;
     }
@@ -181,6 +297,15 @@ public class Shift {
         this.currentNumConfirmedShifts = currentNumConfirmedShifts;
     }
 
+    @JsonIgnore
+    public List<Employee> getEligibleEmployeeList() {
+        return eligibleEmployeeList;
+    }
+
+    public void setEligibleEmployeeList(List<Employee> eligibleEmployeeList) {
+        this.eligibleEmployeeList = eligibleEmployeeList;
+    }
+
     public Employee getAssignedEmployee() {
         return assignedEmployee;
     }
@@ -191,16 +316,10 @@ public class Shift {
 
     /**
      * Check if this shift overlaps with another shift's time
-     * (assumes both shifts are on the same date)
+     * (on absolute times, so overnight shifts are handled across dates)
      */
     public boolean overlapsTime(Shift other) {
-        if (this.startTime == null || this.endTime == null ||
-                other.startTime == null || other.endTime == null) {
-            return false;
-        }
-
-        // Check if time ranges overlap
-        return this.startTime.isBefore(other.endTime) && other.startTime.isBefore(this.endTime);
+        return this.startMinute < other.endMinute && other.startMinute < this.endMinute;
     }
 
     /**
@@ -211,10 +330,11 @@ public class Shift {
     }
 
     /**
-     * Check if this shift conflicts with another (same date AND overlapping time)
+     * Check if this shift conflicts with another (overlapping absolute time,
+     * which includes an overnight shift running into the next day's shifts)
      */
     public boolean conflictsWith(Shift other) {
-        return isSameDate(other) && overlapsTime(other);
+        return overlapsTime(other);
     }
 
     /**
@@ -223,7 +343,7 @@ public class Shift {
     public String getFormattedDate() {
         if (shiftDate == null)
             return "";
-        return shiftDate.format(DateTimeFormatter.ofPattern("dd/MMM/yyyy"));
+        return shiftDate.format(DATE_FORMATTER);
     }
 
     @Override
@@ -0,0 +1,25 @@
+package org.acme.schooltimetabling.domain;
+
+import java.util.Comparator;
+
+/**
+ * Orders shifts from easy to difficult (construction heuristics assign the
+ * most difficult first): fewer eligible employees is more difficult, then an
+ * earlier start.
+ */
+public class ShiftDifficultyComparator implements Comparator<Shift> {
+
+    private static final Comparator<Shift> COMPARATOR =
+            Comparator.comparingInt((Shift shift) -> -eligibleEmployeeCount(shift))
+                    .thenComparingLong(shift -> -shift.getStartMinute())
+                    .thenComparing(Shift::getShiftDayId);
+
+    @Override
+    public int compare(Shift a, Shift b) {
+        return COMPARATOR.compare(a, b);
+    }
+
+    private static int eligibleEmployeeCount(Shift shift) {
+        return shift.getEligibleEmployeeList() != null ? shift.getEligibleEmployeeList().size() : 0;
+    }
+}
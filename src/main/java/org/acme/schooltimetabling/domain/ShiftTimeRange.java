@@ -0,0 +1,161 @@
+package org.acme.schooltimetabling.domain;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.logging.Logger;
+
+/**
+ * A parsed shiftTime string, immutable so the same instance can be shared
+ * by every shift with that time range.
+ * Example: "08:30 Am - 09:30 Pm" -> startTime: 08:30, endTime: 21:30
+ */
+public final class ShiftTimeRange {
+
+    // Rosters reuse a handful of time ranges, the bound only guards against odd input
+    private static final int CACHE_MAX_SIZE = 1024;
+    private static final ConcurrentMap<String, ShiftTimeRange> CACHE = new ConcurrentHashMap<>();
+
+    private static final Logger LOG = Logger.getLogger(ShiftTimeRange.class);
+
+    // Each malformed time is warned about once, whether its range is cached or not;
+    // beyond the bound, at most one warning per interval
+    private static final int WARNED_MAX_SIZE = 1024;
+    private static final Set<String> WARNED = ConcurrentHashMap.newKeySet();
+    private static final long WARN_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final AtomicLong LAST_UNTRACKED_WARN_NANOS = new AtomicLong(System.nanoTime() - WARN_INTERVAL_NANOS);
+
+    // Shifts without a shiftTime, not logged per shift
+    private static final ShiftTimeRange MISSING = new ShiftTimeRange(null, null, null);
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("hh:mm a");
+
+    private final String shiftTime;
+    private final LocalTime startTime; // null if shiftTime could not be parsed
+    private final LocalTime endTime;   // null if shiftTime could not be parsed
+
+    private ShiftTimeRange(String shiftTime, LocalTime startTime, LocalTime endTime) {
+        this.shiftTime = shiftTime;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    /**
+     * The parsed range of a shiftTime string, shared by all callers: each
+     * distinct string is parsed once, until the cache is full
+     */
+    public static ShiftTimeRange of(String shiftTime) {
+        if (shiftTime == null) {
+            return MISSING;
+        }
+        ShiftTimeRange timeRange = CACHE.get(shiftTime);
+        if (timeRange != null) {
+            return timeRange;
+        }
+        timeRange = parse(shiftTime);
+        if (CACHE.size() < CACHE_MAX_SIZE) {
+            ShiftTimeRange cached = CACHE.putIfAbsent(shiftTime, timeRange);
+            return cached != null ? cached : timeRange;
+        }
+        return timeRange;
+    }
+
+    /**
+     * Parse start and end times from a shiftTime string (uncached, see of(String))
+     */
+    public static ShiftTimeRange parse(String shiftTime) {
+        if (shiftTime == null) {
+            return MISSING;
+        }
+        if (!shiftTime.contains(" - ")) {
+            if (shouldWarn(shiftTime)) {
+                LOG.warnf("Invalid shift time format: %s", shiftTime);
+            }
+            return new ShiftTimeRange(shiftTime, null, null);
+        }
+
+        try {
+            String[] parts = shiftTime.split(" - ");
+            if (parts.length != 2) {
+                if (shouldWarn(shiftTime)) {
+                    LOG.warnf("Could not split shift time: %s", shiftTime);
+                }
+                return new ShiftTimeRange(shiftTime, null, null);
+            }
+
+            LocalTime startTime = parseTimeString(parts[0].trim());
+            LocalTime endTime = parseTimeString(parts[1].trim());
+
+            // Handle overnight shifts (end time before start time)
+            if (endTime.isBefore(startTime)) {
+                LOG.debugf("Detected overnight shift: %s", shiftTime);
+                // Shift moves the end to the next day
+            }
+            return new ShiftTimeRange(shiftTime, startTime, endTime);
+        } catch (Exception e) {
+            if (shouldWarn(shiftTime)) {
+                LOG.warnf("Error parsing shift times from: %s - %s", shiftTime, e.getMessage());
+            }
+            return new ShiftTimeRange(shiftTime, null, null);
+        }
+    }
+
+    /**
+     * Parse individual time string like "08:30 Am" or "09:30 Pm"
+     */
+    private static LocalTime parseTimeString(String timeStr) {
+        try {
+            // Handle different formats
+            timeStr = timeStr.replace("Am", "AM").replace("Pm", "PM");
+
+            if (timeStr.contains("AM") || timeStr.contains("PM")) {
+                // 12-hour format
+                return LocalTime.parse(timeStr, TIME_FORMATTER);
+            } else {
+                // 24-hour format fallback
+                return LocalTime.parse(timeStr);
+            }
+        } catch (Exception e) {
+            if (shouldWarn(timeStr)) {
+                LOG.warnf("Could not parse time: %s - %s", timeStr, e.getMessage());
+            }
+            return LocalTime.of(0, 0); // Default fallback
+        }
+    }
+
+    private static boolean shouldWarn(String value) {
+        if (WARNED.contains(value)) {
+            return false;
+        }
+        if (WARNED.size() < WARNED_MAX_SIZE) {
+            return WARNED.add(value);
+        }
+        long now = System.nanoTime();
+        long last = LAST_UNTRACKED_WARN_NANOS.get();
+        return now - last >= WARN_INTERVAL_NANOS && LAST_UNTRACKED_WARN_NANOS.compareAndSet(last, now);
+    }
+
+    public String getShiftTime() {
+        return shiftTime;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Check if the range ends on the day after it starts
+     */
+    public boolean isOvernight() {
+        return startTime != null && endTime != null && endTime.isBefore(startTime);
+    }
+}
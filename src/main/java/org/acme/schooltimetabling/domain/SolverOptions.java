@@ -0,0 +1,29 @@
+package org.acme.schooltimetabling.domain;
+
+import java.time.Duration;
+
+/**
+ * Optional per-request solver settings, sent along with the Roster.
+ * Anything left null uses the server configuration (application.properties).
+ */
+public class SolverOptions {
+
+    private String moveThreadCount; // NONE, AUTO or a number of move threads
+    private String partitionBy;     // NONE, DATE or SHIFT_PATTERN (partitioned search)
+    private Duration spentLimit;    // ISO-8601 ("PT30S"), replaces the size-scaled budget
+    private Duration unimprovedSpentLimit; // Stop after this long without a better score
+
+    public SolverOptions() {}
+
+    public String getMoveThreadCount() { return moveThreadCount; }
+    public void setMoveThreadCount(String moveThreadCount) { this.moveThreadCount = moveThreadCount; }
+
+    public String getPartitionBy() { return partitionBy; }
+    public void setPartitionBy(String partitionBy) { this.partitionBy = partitionBy; }
+
+    public Duration getSpentLimit() { return spentLimit; }
+    public void setSpentLimit(Duration spentLimit) { this.spentLimit = spentLimit; }
+
+    public Duration getUnimprovedSpentLimit() { return unimprovedSpentLimit; }
+    public void setUnimprovedSpentLimit(Duration unimprovedSpentLimit) { this.unimprovedSpentLimit = unimprovedSpentLimit; }
+}
@@ -0,0 +1,279 @@
+package org.acme.schooltimetabling.rest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.acme.schooltimetabling.domain.Employee;
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.domain.Shift;
+import org.acme.schooltimetabling.domain.SolverOptions;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+
+/**
+ * Columnar form of a Roster for the binary content type (see CompactRosterProvider).
+ * 
+ * Repeated strings (shift pattern IDs and names, shift times, job orders) are
+ * stored once in a dictionary and referenced by index, employees are referenced
+ * by their index in the employee columns. Every column has one entry per
+ * employee or per shift; -1 means null.
+ */
+public class CompactRoster {
+
+    // Dictionaries
+    private List<String> shiftPatternIds;
+    private List<String> shiftPatternNames;
+    private List<String> shiftTimes;
+    private List<String> jobOrderIds;
+
+    // Employee columns
+    private List<String> assignmentIds;
+    private List<String> associateIds;
+    private int[][] employeeShiftPatterns; // Indexes into shiftPatternIds
+    private int[] employeeJobOrders;
+
+    // Shift columns
+    private List<String> shiftDayIds;
+    private List<String> originalShiftDayIds;
+    private int[] shiftPatterns;
+    private int[] shiftPatternNameIndexes;
+    private int[] shiftTimeIndexes;
+    private long[] shiftDates; // Epoch days, Long.MIN_VALUE = null
+    private int[] shiftJobOrders;
+    private boolean[] pinned;
+    private int[] openings;
+    private int[] currentNumConfirmedShifts;
+    private int[] assignedEmployees; // Indexes into the employee columns
+
+    private String score;
+    private SolverOptions solverOptions;
+
+    public CompactRoster() {}
+
+    public static CompactRoster fromRoster(Roster roster) {
+        CompactRoster compact = new CompactRoster();
+        Dictionary shiftPatternIdDictionary = new Dictionary();
+        Dictionary shiftPatternNameDictionary = new Dictionary();
+        Dictionary shiftTimeDictionary = new Dictionary();
+        Dictionary jobOrderIdDictionary = new Dictionary();
+
+        List<Employee> employeeList = roster.getEmployeeList() != null ? roster.getEmployeeList() : List.of();
+        int employeeCount = employeeList.size();
+        Map<Employee, Integer> employeeIndexMap = new IdentityHashMap<>(employeeCount);
+        compact.assignmentIds = new ArrayList<>(employeeCount);
+        compact.associateIds = new ArrayList<>(employeeCount);
+        compact.employeeShiftPatterns = new int[employeeCount][];
+        compact.employeeJobOrders = new int[employeeCount];
+        for (int i = 0; i < employeeCount; i++) {
+            Employee employee = employeeList.get(i);
+            employeeIndexMap.put(employee, i);
+            compact.assignmentIds.add(employee.getAssignmentId());
+            compact.associateIds.add(employee.getAssociateId());
+            List<String> employeeShiftPatternIds = employee.getShiftPatternIds();
+            if (employeeShiftPatternIds != null) {
+                int[] patterns = new int[employeeShiftPatternIds.size()];
+                for (int j = 0; j < patterns.length; j++) {
+                    patterns[j] = shiftPatternIdDictionary.indexOf(employeeShiftPatternIds.get(j));
+                }
+                compact.employeeShiftPatterns[i] = patterns;
+            }
+            compact.employeeJobOrders[i] = jobOrderIdDictionary.indexOf(employee.getJobOrderId());
+        }
+
+        List<Shift> shiftList = roster.getShiftList() != null ? roster.getShiftList() : List.of();
+        int shiftCount = shiftList.size();
+        compact.shiftDayIds = new ArrayList<>(shiftCount);
+        compact.originalShiftDayIds = new ArrayList<>(shiftCount);
+        compact.shiftPatterns = new int[shiftCount];
+        compact.shiftPatternNameIndexes = new int[shiftCount];
+        compact.shiftTimeIndexes = new int[shiftCount];
+        compact.shiftDates = new long[shiftCount];
+        compact.shiftJobOrders = new int[shiftCount];
+        compact.pinned = new boolean[shiftCount];
+        compact.openings = new int[shiftCount];
+        compact.currentNumConfirmedShifts = new int[shiftCount];
+        compact.assignedEmployees = new int[shiftCount];
+        for (int i = 0; i < shiftCount; i++) {
+            Shift shift = shiftList.get(i);
+            compact.shiftDayIds.add(shift.getShiftDayId());
+            compact.originalShiftDayIds.add(shift.getOriginalShiftDayId());
+            compact.shiftPatterns[i] = shiftPatternIdDictionary.indexOf(shift.getShiftPatternId());
+            compact.shiftPatternNameIndexes[i] = shiftPatternNameDictionary.indexOf(shift.getShiftPatternName());
+            compact.shiftTimeIndexes[i] = shiftTimeDictionary.indexOf(shift.getShiftTime());
+            compact.shiftDates[i] = shift.getShiftDate() != null ? shift.getShiftDate().toEpochDay() : Long.MIN_VALUE;
+            compact.shiftJobOrders[i] = jobOrderIdDictionary.indexOf(shift.getJobOrderId());
+            compact.pinned[i] = shift.isPinned();
+            compact.openings[i] = shift.getOpenings();
+            compact.currentNumConfirmedShifts[i] = shift.getCurrentNumConfirmedShifts();
+            Employee assignedEmployee = shift.getAssignedEmployee();
+            if (assignedEmployee == null) {
+                compact.assignedEmployees[i] = -1;
+            } else {
+                Integer employeeIndex = employeeIndexMap.get(assignedEmployee);
+                if (employeeIndex == null) {
+                    throw new IllegalArgumentException("Shift (" + shift.getShiftDayId() + ") is assigned to employee ("
+                            + assignedEmployee.getAssignmentId() + ") who is not in the employeeList");
+                }
+                compact.assignedEmployees[i] = employeeIndex;
+            }
+        }
+
+        compact.shiftPatternIds = shiftPatternIdDictionary.values;
+        compact.shiftPatternNames = shiftPatternNameDictionary.values;
+        compact.shiftTimes = shiftTimeDictionary.values;
+        compact.jobOrderIds = jobOrderIdDictionary.values;
+        compact.score = roster.getScore() != null ? roster.getScore().toString() : null;
+        compact.solverOptions = roster.getSolverOptions();
+        return compact;
+    }
+
+    public Roster toRoster() {
+        int employeeCount = assignmentIds != null ? assignmentIds.size() : 0;
+        List<Employee> employeeList = new ArrayList<>(employeeCount);
+        for (int i = 0; i < employeeCount; i++) {
+            List<String> employeeShiftPatternIds = null;
+            int[] patterns = employeeShiftPatterns != null ? employeeShiftPatterns[i] : null;
+            if (patterns != null) {
+                employeeShiftPatternIds = new ArrayList<>(patterns.length);
+                for (int pattern : patterns) {
+                    employeeShiftPatternIds.add(lookUp(shiftPatternIds, pattern));
+                }
+            }
+            employeeList.add(new Employee(assignmentIds.get(i), lookUp(associateIds, i), employeeShiftPatternIds,
+                    employeeJobOrders != null ? lookUp(jobOrderIds, employeeJobOrders[i]) : null));
+        }
+
+        int shiftCount = shiftDayIds != null ? shiftDayIds.size() : 0;
+        List<Shift> shiftList = new ArrayList<>(shiftCount);
+        for (int i = 0; i < shiftCount; i++) {
+            LocalDate shiftDate = shiftDates != null && shiftDates[i] != Long.MIN_VALUE
+                    ? LocalDate.ofEpochDay(shiftDates[i])
+                    : null;
+            Shift shift = new Shift(shiftDayIds.get(i), lookUp(originalShiftDayIds, i),
+                    shiftPatterns != null ? lookUp(shiftPatternIds, shiftPatterns[i]) : null,
+                    shiftPatternNameIndexes != null ? lookUp(shiftPatternNames, shiftPatternNameIndexes[i]) : null,
+                    shiftTimeIndexes != null ? lookUp(shiftTimes, shiftTimeIndexes[i]) : null,
+                    shiftDate);
+            if (shiftJobOrders != null) {
+                shift.setJobOrderId(lookUp(jobOrderIds, shiftJobOrders[i]));
+            }
+            if (pinned != null) {
+                shift.setPinned(pinned[i]);
+            }
+            if (openings != null) {
+                shift.setOpenings(openings[i]);
+            }
+            if (currentNumConfirmedShifts != null) {
+                shift.setCurrentNumConfirmedShifts(currentNumConfirmedShifts[i]);
+            }
+            if (assignedEmployees != null && assignedEmployees[i] >= 0) {
+                if (assignedEmployees[i] >= employeeCount) {
+                    throw new IllegalArgumentException("Shift (" + shift.getShiftDayId()
+                            + ") is assigned to an unknown employee index (" + assignedEmployees[i] + ")");
+                }
+                shift.setAssignedEmployee(employeeList.get(assignedEmployees[i]));
+            }
+            shiftList.add(shift);
+        }
+
+        Roster roster = new Roster(employeeList, shiftList);
+        roster.setScore(score != null ? HardMediumSoftScore.parseScore(score) : null);
+        roster.setSolverOptions(solverOptions);
+        return roster;
+    }
+
+    private static String lookUp(List<String> values, int index) {
+        if (index < 0) {
+            return null;
+        }
+        if (values == null || index >= values.size()) {
+            throw new IllegalArgumentException("Invalid dictionary index (" + index + ")");
+        }
+        return values.get(index);
+    }
+
+    /**
+     * Assigns each distinct string the next index, in order of appearance
+     */
+    private static final class Dictionary {
+
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> indexMap = new HashMap<>();
+
+        int indexOf(String value) {
+            if (value == null) {
+                return -1;
+            }
+            return indexMap.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+    }
+
+    public List<String> getShiftPatternIds() { return shiftPatternIds; }
+    public void setShiftPatternIds(List<String> shiftPatternIds) { this.shiftPatternIds = shiftPatternIds; }
+
+    public List<String> getShiftPatternNames() { return shiftPatternNames; }
+    public void setShiftPatternNames(List<String> shiftPatternNames) { this.shiftPatternNames = shiftPatternNames; }
+
+    public List<String> getShiftTimes() { return shiftTimes; }
+    public void setShiftTimes(List<String> shiftTimes) { this.shiftTimes = shiftTimes; }
+
+    public List<String> getJobOrderIds() { return jobOrderIds; }
+    public void setJobOrderIds(List<String> jobOrderIds) { this.jobOrderIds = jobOrderIds; }
+
+    public List<String> getAssignmentIds() { return assignmentIds; }
+    public void setAssignmentIds(List<String> assignmentIds) { this.assignmentIds = assignmentIds; }
+
+    public List<String> getAssociateIds() { return associateIds; }
+    public void setAssociateIds(List<String> associateIds) { this.associateIds = associateIds; }
+
+    public int[][] getEmployeeShiftPatterns() { return employeeShiftPatterns; }
+    public void setEmployeeShiftPatterns(int[][] employeeShiftPatterns) { this.employeeShiftPatterns = employeeShiftPatterns; }
+
+    public int[] getEmployeeJobOrders() { return employeeJobOrders; }
+    public void setEmployeeJobOrders(int[] employeeJobOrders) { this.employeeJobOrders = employeeJobOrders; }
+
+    public List<String> getShiftDayIds() { return shiftDayIds; }
+    public void setShiftDayIds(List<String> shiftDayIds) { this.shiftDayIds = shiftDayIds; }
+
+    public List<String> getOriginalShiftDayIds() { return originalShiftDayIds; }
+    public void setOriginalShiftDayIds(List<String> originalShiftDayIds) { this.originalShiftDayIds = originalShiftDayIds; }
+
+    public int[] getShiftPatterns() { return shiftPatterns; }
+    public void setShiftPatterns(int[] shiftPatterns) { this.shiftPatterns = shiftPatterns; }
+
+    public int[] getShiftPatternNameIndexes() { return shiftPatternNameIndexes; }
+    public void setShiftPatternNameIndexes(int[] shiftPatternNameIndexes) { this.shiftPatternNameIndexes = shiftPatternNameIndexes; }
+
+    public int[] getShiftTimeIndexes() { return shiftTimeIndexes; }
+    public void setShiftTimeIndexes(int[] shiftTimeIndexes) { this.shiftTimeIndexes = shiftTimeIndexes; }
+
+    public long[] getShiftDates() { return shiftDates; }
+    public void setShiftDates(long[] shiftDates) { this.shiftDates = shiftDates; }
+
+    public int[] getShiftJobOrders() { return shiftJobOrders; }
+    public void setShiftJobOrders(int[] shiftJobOrders) { this.shiftJobOrders = shiftJobOrders; }
+
+    public boolean[] getPinned() { return pinned; }
+    public void setPinned(boolean[] pinned) { this.pinned = pinned; }
+
+    public int[] getOpenings() { return openings; }
+    public void setOpenings(int[] openings) { this.openings = openings; }
+
+    public int[] getCurrentNumConfirmedShifts() { return currentNumConfirmedShifts; }
+    public void setCurrentNumConfirmedShifts(int[] currentNumConfirmedShifts) { this.currentNumConfirmedShifts = currentNumConfirmedShifts; }
+
+    public int[] getAssignedEmployees() { return assignedEmployees; }
+    public void setAssignedEmployees(int[] assignedEmployees) { this.assignedEmployees = assignedEmployees; }
+
+    public String getScore() { return score; }
+    public void setScore(String score) { this.score = score; }
+
+    public SolverOptions getSolverOptions() { return solverOptions; }
+    public void setSolverOptions(SolverOptions solverOptions) { this.solverOptions = solverOptions; }
+}
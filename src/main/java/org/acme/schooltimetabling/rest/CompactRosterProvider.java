@@ -0,0 +1,67 @@
+package org.acme.schooltimetabling.rest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import org.acme.schooltimetabling.domain.Roster;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.MessageBodyReader;
+import jakarta.ws.rs.ext.MessageBodyWriter;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Reads and writes a Roster as a CompactRoster in Smile (binary JSON), for
+ * clients that send Content-Type/Accept application/x-jackson-smile.
+ * JSON stays the default content type.
+ */
+@Provider
+@Consumes(CompactRosterProvider.APPLICATION_SMILE)
+@Produces(CompactRosterProvider.APPLICATION_SMILE)
+public class CompactRosterProvider implements MessageBodyReader<Roster>, MessageBodyWriter<Roster> {
+
+    public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+
+    private static final ObjectMapper SMILE_MAPPER = SmileMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return Roster.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public Roster readFrom(Class<Roster> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException {
+        CompactRoster compactRoster = SMILE_MAPPER.readValue(entityStream, CompactRoster.class);
+        try {
+            return compactRoster.toRoster();
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Compact roster columns have inconsistent lengths", e);
+        }
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return Roster.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public void writeTo(Roster roster, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        SMILE_MAPPER.writeValue(entityStream, CompactRoster.fromRoster(roster));
+    }
+}
@@ -0,0 +1,62 @@
+package org.acme.schooltimetabling.rest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.acme.schooltimetabling.domain.Employee;
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.domain.Shift;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import jakarta.ws.rs.core.StreamingOutput;
+
+/**
+ * Writes only the outcome of a solved roster, straight to the response stream:
+ * 
+ * {"score": "0hard/-2medium/0soft", "feasible": true, "totalShiftCount": 3,
+ *  "assignedShiftCount": 1, "unassignedShiftCount": 2,
+ *  "assignments": [["S1", "A1"], ...]}
+ * 
+ * Each assignment is an (originalShiftDayId, assignmentId) pair, a shift with
+ * several openings appears once per assigned opening. Unassigned shifts are
+ * only counted.
+ */
+class RosterAssignmentsOutput implements StreamingOutput {
+
+    private final Roster solution;
+    private final JsonFactory jsonFactory;
+
+    RosterAssignmentsOutput(Roster solution, JsonFactory jsonFactory) {
+        this.solution = solution;
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(output)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.writeStartObject();
+            generator.writeStringField("score", solution.getScore() != null ? solution.getScore().toString() : null);
+            generator.writeBooleanField("feasible", solution.isFeasible());
+            generator.writeNumberField("totalShiftCount", solution.getTotalShiftCount());
+            generator.writeNumberField("assignedShiftCount", solution.getAssignedShiftCount());
+            generator.writeNumberField("unassignedShiftCount", solution.getUnassignedShiftCount());
+            generator.writeArrayFieldStart("assignments");
+            if (solution.getShiftList() != null) {
+                for (Shift shift : solution.getShiftList()) {
+                    Employee employee = shift.getAssignedEmployee();
+                    if (employee != null) {
+                        generator.writeStartArray();
+                        generator.writeString(shift.getOriginalShiftDayId());
+                        generator.writeString(employee.getAssignmentId());
+                        generator.writeEndArray();
+                    }
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.acme.schooltimetabling.rest;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.solver.RosterSolverService;
+
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
+
+/**
+ * Solves the rosters of one batch request, streaming a "result" event per roster
+ * as it finishes and a "complete" event at the end.
+ * 
+ * At most maxConcurrentJobs rosters of a batch are submitted to the solver at a
+ * time (the next one when one finishes), so a big batch cannot fill the solver
+ * queue ahead of other requests.
+ * 
+ * A roster that cannot be submitted gets a "result" event with its error
+ * message, like one that failed solving, so the batch still completes. Once the
+ * client went away, the rosters still being solved are terminated.
+ */
+class RosterBatch {
+
+    private final List<Roster> problems;
+    private final RosterSolverService solverService;
+    private final SseEventSink eventSink;
+    private final Sse sse;
+
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final AtomicInteger remainingCount;
+    private final Set<UUID> runningJobIds = ConcurrentHashMap.newKeySet();
+
+    RosterBatch(List<Roster> problems, RosterSolverService solverService, SseEventSink eventSink, Sse sse) {
+        this.problems = problems;
+        this.solverService = solverService;
+        this.eventSink = eventSink;
+        this.sse = sse;
+        this.remainingCount = new AtomicInteger(problems.size());
+    }
+
+    void start(int maxConcurrentJobs) {
+        for (int i = 0; i < maxConcurrentJobs; i++) {
+            submitNext();
+        }
+    }
+
+    private void submitNext() {
+        int index = nextIndex.getAndIncrement();
+        if (index >= problems.size()) {
+            return;
+        }
+        if (eventSink.isClosed()) {
+            terminateRunningJobs();
+            return;
+        }
+        UUID jobId = UUID.randomUUID();
+        runningJobIds.add(jobId);
+        try {
+            solverService.solve(jobId, problems.get(index),
+                    bestSolution -> {
+                        if (eventSink.isClosed()) {
+                            terminateRunningJobs();
+                        }
+                    },
+                    finalBestSolution -> finish(new RosterBatchResult(index, jobId, finalBestSolution, null)),
+                    (id, throwable) -> finish(new RosterBatchResult(index, jobId, null,
+                            "Solving failed: " + throwable.getMessage())));
+        } catch (RuntimeException e) {
+            // Usually on a solver thread (after another roster finished), where nobody would see it
+            finish(new RosterBatchResult(index, jobId, null, "Submitting failed: " + e.getMessage()));
+        }
+    }
+
+    private void terminateRunningJobs() {
+        // Client went away, stop the rosters that are still being solved
+        runningJobIds.forEach(solverService::terminateEarly);
+    }
+
+    private void finish(RosterBatchResult result) {
+        runningJobIds.remove(result.getJobId());
+        send("result", result);
+        if (remainingCount.decrementAndGet() == 0) {
+            send("complete", problems.size());
+            eventSink.close();
+        } else {
+            submitNext();
+        }
+    }
+
+    private synchronized void send(String name, Object data) {
+        if (eventSink.isClosed()) {
+            return;
+        }
+        eventSink.send(sse.newEventBuilder()
+                .name(name)
+                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(data)
+                .build());
+    }
+}
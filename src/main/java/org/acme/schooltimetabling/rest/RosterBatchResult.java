@@ -0,0 +1,39 @@
+package org.acme.schooltimetabling.rest;
+
+import java.util.UUID;
+
+import org.acme.schooltimetabling.domain.Roster;
+
+/**
+ * Outcome of one roster of a batch, sent as soon as it is solved
+ */
+public class RosterBatchResult {
+
+    private final int index; // Position of the roster in the request
+    private final UUID jobId;
+    private final Roster roster; // null if solving failed
+    private final String errorMessage;
+
+    public RosterBatchResult(int index, UUID jobId, Roster roster, String errorMessage) {
+        this.index = index;
+        this.jobId = jobId;
+        this.roster = roster;
+        this.errorMessage = errorMessage;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public UUID getJobId() {
+        return jobId;
+    }
+
+    public Roster getRoster() {
+        return roster;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
@@ -0,0 +1,82 @@
+package org.acme.schooltimetabling.rest;
+
+import java.util.UUID;
+
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.solver.RosterSolverJob;
+import org.optaplanner.core.api.solver.SolverStatus;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Tracks one asynchronously submitted roster problem.
+ *
+ * The solver threads update the best solution (and failure, if any) while
+ * HTTP threads poll this object, so the mutable state is volatile.
+ */
+public class RosterJob {
+
+    private final UUID jobId;
+
+    private volatile RosterSolverJob solverJob;
+    private volatile Roster bestSolution;
+    private volatile String errorMessage;
+    private volatile long finishedMillis = 0L; // When solving ended or failed, 0 while not finished
+
+    public RosterJob(UUID jobId, Roster problem) {
+        this.jobId = jobId;
+        this.bestSolution = problem;
+    }
+
+    public UUID getJobId() {
+        return jobId;
+    }
+
+    /**
+     * NOT_SOLVING once the job finished, was cancelled or failed
+     */
+    public SolverStatus getSolverStatus() {
+        return solverJob != null ? solverJob.getSolverStatus() : SolverStatus.SOLVING_SCHEDULED;
+    }
+
+    /**
+     * Best solution found so far (the unsolved problem until the first one arrives)
+     */
+    public Roster getRoster() {
+        return bestSolution;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    @JsonIgnore
+    public RosterSolverJob getSolverJob() {
+        return solverJob;
+    }
+
+    void setSolverJob(RosterSolverJob solverJob) {
+        this.solverJob = solverJob;
+    }
+
+    void setBestSolution(Roster bestSolution) {
+        this.bestSolution = bestSolution;
+    }
+
+    void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    void markFinished() {
+        this.finishedMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Check if the job finished (or failed) more than ttlMillis ago
+     */
+    boolean isFinishedBefore(long ttlMillis, long nowMillis) {
+        long finished = finishedMillis;
+        return finished != 0L && nowMillis - finished > ttlMillis
+                && getSolverStatus() == SolverStatus.NOT_SOLVING;
+    }
+}
@@ -0,0 +1,261 @@
+package org.acme.schooltimetabling.rest;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.acme.schooltimetabling.domain.Employee;
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.domain.Shift;
+import org.acme.schooltimetabling.domain.ShiftTimeRange;
+import org.acme.schooltimetabling.domain.SolverOptions;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+/**
+ * Builds Roster, Shift and Employee objects straight from the JSON token
+ * stream, one instance per request body:
+ * - repeated strings (pattern IDs and names, job orders, shift times) are
+ *   interned, so equal values share one String
+ * - shift times come from the shared ShiftTimeRange cache, so each distinct
+ *   shiftTime is parsed once
+ * - an assignedEmployee (a full object, or just its assignmentId) is
+ *   resolved to the instance in the roster's employeeList; one no longer in
+ *   it (e.g. a removed employee on /roster/resolve) stays a bare Employee with
+ *   only that assignmentId, which Roster.buildIndexes() unassigns
+ * 
+ * Unknown and output-only properties (startTime, feasible, ...) are skipped.
+ */
+class RosterJsonReader {
+
+    private final Map<String, String> internMap = new HashMap<>();
+
+    Roster readRoster(JsonParser parser, DeserializationContext context) throws IOException {
+        expectStartObject(parser, context, Roster.class);
+        Roster roster = new Roster();
+        // Shift -> assignmentId of its assigned employee, resolved once the employeeList is known
+        Map<Shift, String> assignmentIdMap = new IdentityHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (fieldName) {
+                case "employeeList":
+                    roster.setEmployeeList(token == JsonToken.VALUE_NULL ? null : readEmployeeList(parser, context));
+                    break;
+                case "shiftList":
+                    roster.setShiftList(token == JsonToken.VALUE_NULL ? null : readShiftList(parser, context, assignmentIdMap));
+                    break;
+                case "score":
+                    roster.setScore(token == JsonToken.VALUE_NULL ? null : HardMediumSoftScore.parseScore(parser.getText()));
+                    break;
+                case "solverOptions":
+                    roster.setSolverOptions(token == JsonToken.VALUE_NULL ? null : context.readValue(parser, SolverOptions.class));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        resolveAssignedEmployees(roster, assignmentIdMap);
+        return roster;
+    }
+
+    Shift readShift(JsonParser parser, DeserializationContext context) throws IOException {
+        Map<Shift, String> assignmentIdMap = new IdentityHashMap<>();
+        Shift shift = readShift(parser, context, assignmentIdMap);
+        if (shift.getAssignedEmployee() == null && assignmentIdMap.containsKey(shift)) {
+            // No roster to resolve against: a bare employee with just the ID
+            Employee employee = new Employee();
+            employee.setAssignmentId(assignmentIdMap.get(shift));
+            shift.setAssignedEmployee(employee);
+        }
+        return shift;
+    }
+
+    Employee readEmployee(JsonParser parser, DeserializationContext context) throws IOException {
+        expectStartObject(parser, context, Employee.class);
+        Employee employee = new Employee();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (fieldName) {
+                case "assignmentId":
+                    employee.setAssignmentId(readString(parser));
+                    break;
+                case "associateId":
+                    employee.setAssociateId(readString(parser));
+                    break;
+                case "shiftPatternIds":
+                    employee.setShiftPatternIds(token == JsonToken.VALUE_NULL ? null : readInternedStringList(parser, context));
+                    break;
+                case "jobOrderId":
+                    employee.setJobOrderId(readInternedString(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return employee;
+    }
+
+    private List<Employee> readEmployeeList(JsonParser parser, DeserializationContext context) throws IOException {
+        expectStartArray(parser, context);
+        List<Employee> employeeList = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            rejectNullEntry(parser, "employeeList");
+            employeeList.add(readEmployee(parser, context));
+        }
+        return employeeList;
+    }
+
+    private List<Shift> readShiftList(JsonParser parser, DeserializationContext context,
+            Map<Shift, String> assignmentIdMap) throws IOException {
+        expectStartArray(parser, context);
+        List<Shift> shiftList = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            rejectNullEntry(parser, "shiftList");
+            shiftList.add(readShift(parser, context, assignmentIdMap));
+        }
+        return shiftList;
+    }
+
+    /**
+     * A null employee or shift would only fail later, in Roster.buildIndexes()
+     */
+    private static void rejectNullEntry(JsonParser parser, String listName) {
+        if (parser.currentToken() == JsonToken.VALUE_NULL) {
+            throw new IllegalArgumentException("Null entry in " + listName);
+        }
+    }
+
+    private Shift readShift(JsonParser parser, DeserializationContext context,
+            Map<Shift, String> assignmentIdMap) throws IOException {
+        expectStartObject(parser, context, Shift.class);
+        Shift shift = new Shift();
+        LocalDate shiftDate = null;
+        ShiftTimeRange timeRange = null;
+        String assignmentId = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (fieldName) {
+                case "shiftDayId":
+                    shift.setShiftDayId(readString(parser));
+                    break;
+                case "originalShiftDayId":
+                    shift.setOriginalShiftDayId(readString(parser));
+                    break;
+                case "shiftPatternId":
+                    shift.setShiftPatternId(readInternedString(parser));
+                    break;
+                case "shiftPatternName":
+                    shift.setShiftPatternName(readInternedString(parser));
+                    break;
+                case "jobOrderId":
+                    shift.setJobOrderId(readInternedString(parser));
+                    break;
+                case "shiftDate":
+                    shiftDate = token == JsonToken.VALUE_NULL ? null : context.readValue(parser, LocalDate.class);
+                    break;
+                case "shiftTime":
+                    timeRange = readTimeRange(parser);
+                    break;
+                case "pinned":
+                    shift.setPinned(token == JsonToken.VALUE_TRUE);
+                    break;
+                case "openings":
+                    shift.setOpenings(parser.getValueAsInt(1));
+                    break;
+                case "currentNumConfirmedShifts":
+                    shift.setCurrentNumConfirmedShifts(parser.getValueAsInt(0));
+                    break;
+                case "assignedEmployee":
+                    if (token == JsonToken.START_OBJECT) {
+                        assignmentId = readEmployee(parser, context).getAssignmentId();
+                    } else if (token != JsonToken.VALUE_NULL) {
+                        assignmentId = parser.getValueAsString();
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        // Date and time applied together: absolute times are computed once
+        shift.setShiftDateAndTimeRange(shiftDate, timeRange);
+        if (assignmentId != null) {
+            assignmentIdMap.put(shift, assignmentId);
+        }
+        return shift;
+    }
+
+    private static void resolveAssignedEmployees(Roster roster, Map<Shift, String> assignmentIdMap) {
+        if (assignmentIdMap.isEmpty()) {
+            return;
+        }
+        Map<String, Employee> employeeMap = new HashMap<>();
+        if (roster.getEmployeeList() != null) {
+            for (Employee employee : roster.getEmployeeList()) {
+                if (employee != null) {
+                    employeeMap.put(employee.getAssignmentId(), employee);
+                }
+            }
+        }
+        for (Map.Entry<Shift, String> entry : assignmentIdMap.entrySet()) {
+            Employee employee = employeeMap.get(entry.getValue());
+            if (employee == null) {
+                employee = new Employee();
+                employee.setAssignmentId(entry.getValue());
+            }
+            entry.getKey().setAssignedEmployee(employee);
+        }
+    }
+
+    private ShiftTimeRange readTimeRange(JsonParser parser) throws IOException {
+        String shiftTime = readInternedString(parser);
+        if (shiftTime == null) {
+            return null;
+        }
+        return ShiftTimeRange.of(shiftTime);
+    }
+
+    private List<String> readInternedStringList(JsonParser parser, DeserializationContext context) throws IOException {
+        expectStartArray(parser, context);
+        List<String> values = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(readInternedString(parser));
+        }
+        return values;
+    }
+
+    private String readInternedString(JsonParser parser) throws IOException {
+        String value = readString(parser);
+        if (value == null) {
+            return null;
+        }
+        String interned = internMap.putIfAbsent(value, value);
+        return interned != null ? interned : value;
+    }
+
+    private static String readString(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+    }
+
+    private static void expectStartObject(JsonParser parser, DeserializationContext context, Class<?> type)
+            throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            context.reportWrongTokenException(type, JsonToken.START_OBJECT, "Expected a " + type.getSimpleName() + " object");
+        }
+    }
+
+    private static void expectStartArray(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            context.reportWrongTokenException(List.class, JsonToken.START_ARRAY, "Expected an array");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.acme.schooltimetabling.rest;
+
+import java.io.IOException;
+
+import org.acme.schooltimetabling.domain.Employee;
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.domain.Shift;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+import io.quarkus.jackson.ObjectMapperCustomizer;
+import jakarta.inject.Singleton;
+
+/**
+ * Registers the streaming deserializers of RosterJsonReader on the ObjectMapper
+ * Quarkus uses for the REST endpoints. Serialization is unchanged.
+ */
+@Singleton
+public class RosterObjectMapperCustomizer implements ObjectMapperCustomizer {
+
+    @Override
+    public void customize(ObjectMapper objectMapper) {
+        SimpleModule module = new SimpleModule("RosterDeserializers");
+        module.addDeserializer(Roster.class, new RosterDeserializer());
+        module.addDeserializer(Shift.class, new ShiftDeserializer());
+        module.addDeserializer(Employee.class, new EmployeeDeserializer());
+        objectMapper.registerModule(module);
+    }
+
+    static class RosterDeserializer extends JsonDeserializer<Roster> {
+
+        @Override
+        public Roster deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return new RosterJsonReader().readRoster(parser, context);
+        }
+    }
+
+    static class ShiftDeserializer extends JsonDeserializer<Shift> {
+
+        @Override
+        public Shift deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return new RosterJsonReader().readShift(parser, context);
+        }
+    }
+
+    static class EmployeeDeserializer extends JsonDeserializer<Employee> {
+
+        @Override
+        public Employee deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            return new RosterJsonReader().readEmployee(parser, context);
+        }
+    }
+}
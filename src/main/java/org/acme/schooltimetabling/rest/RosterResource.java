@@ -1,18 +1,56 @@
 package org.acme.schooltimetabling.rest;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.acme.schooltimetabling.domain.Roster;
-import org.optaplanner.core.api.solver.SolverJob;
-import org.optaplanner.core.api.solver.SolverManager;
+import org.acme.schooltimetabling.domain.Shift;
+import org.acme.schooltimetabling.solver.AddShiftProblemChange;
+import org.acme.schooltimetabling.solver.ChangeEmployeeShiftPatternsProblemChange;
+import org.acme.schooltimetabling.solver.ChangeShiftTimeProblemChange;
+import org.acme.schooltimetabling.solver.RemoveEmployeeProblemChange;
+import org.acme.schooltimetabling.solver.RosterSolverJob;
+import org.acme.schooltimetabling.solver.RosterSolverService;
+import org.optaplanner.core.api.solver.SolverStatus;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.jboss.logging.MDC;
+import org.optaplanner.core.api.solver.change.ProblemChange;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Inject;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ClientErrorException;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.POST;
+import jakarta.ws.rs.PUT;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.sse.Sse;
+import jakarta.ws.rs.sse.SseEventSink;
 
 /**
  * SIMPLIFIED REST resource for solving the Roster scheduling problem.
@@ -23,8 +61,49 @@ import jakarta.ws.rs.core.MediaType;
 @Path("/roster")
 public class RosterResource {
 
+    private static final Logger LOG = Logger.getLogger(RosterResource.class);
+
     @Inject
-    SolverManager<Roster, UUID> solverManager;
+    RosterSolverService solverService;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "roster.batch.max-size", defaultValue = "100")
+    int batchMaxSize;
+
+    @ConfigProperty(name = "roster.batch.max-concurrent-jobs", defaultValue = "4")
+    int batchMaxConcurrentJobs;
+
+    @ConfigProperty(name = "roster.jobs.finished-ttl", defaultValue = "30m")
+    Duration finishedJobTtl;
+
+    @ConfigProperty(name = "roster.jobs.eviction-interval", defaultValue = "1m")
+    Duration jobEvictionInterval;
+
+    /**
+     * Asynchronously submitted jobs, kept until they are deleted or, once
+     * finished, for roster.jobs.finished-ttl
+     */
+    private final ConcurrentMap<UUID, RosterJob> jobMap = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService jobEvictionScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "roster-job-eviction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void scheduleJobEviction() {
+        long intervalMillis = jobEvictionInterval.toMillis();
+        jobEvictionScheduler.scheduleWithFixedDelay(this::evictFinishedJobs,
+                intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopJobEviction() {
+        jobEvictionScheduler.shutdownNow();
+    }
 
     /**
      * Solve the roster scheduling problem.
@@ -34,48 +113,347 @@ public class RosterResource {
      * - Split shifts (each with exactly 1 opening)
      * 
      * Output: Optimized Roster with assignments
+     * 
+     * Large rosters may use application/x-jackson-smile instead of JSON for the
+     * request and/or the response (see CompactRoster).
      */
     @POST
     @Path("/solve")
+    @Consumes({ MediaType.APPLICATION_JSON, CompactRosterProvider.APPLICATION_SMILE })
+    @Produces({ MediaType.APPLICATION_JSON, CompactRosterProvider.APPLICATION_SMILE })
+    public Roster solve(Roster problem) {
+        // Validate input and build the eligibility indexes
+        prepareProblem(problem);
+        return solvePrepared(problem);
+    }
+
+    /**
+     * Solve a roster that prepareProblem(...) already validated and indexed
+     */
+    private Roster solvePrepared(Roster problem) {
+        UUID problemId = UUID.randomUUID();
+        return RosterSolverService.callWithJobMdc(problemId, problem, () -> {
+            LOG.info("Received roster problem");
+
+            // Submit problem to OptaPlanner solver
+            RosterSolverJob solverJob = solverService.solve(problemId, problem);
+
+            Roster solution;
+            try {
+                // Wait for solving to complete
+                solution = solverJob.getFinalBestSolution();
+            } catch (InterruptedException | ExecutionException e) {
+                LOG.errorf(e, "Solving failed: %s", e.getMessage());
+                throw new IllegalStateException("Solving failed", e);
+            }
+
+            MDC.put(RosterSolverService.MDC_SCORE, String.valueOf(solution.getScore()));
+            LOG.infof("Solving completed: %d assigned, %d unassigned shifts",
+                    solution.getAssignedShiftCount(), solution.getUnassignedShiftCount());
+            return solution;
+        });
+    }
+
+    /**
+     * Solve like /solve, but respond with only the score, the counts and the
+     * (originalShiftDayId, assignmentId) pairs (see RosterAssignmentsOutput),
+     * streamed as they are written. For large rosters the full response
+     * repeats every assigned Employee per shift.
+     * 
+     * The request thread returns right after submitting, the response is
+     * written once solving ends.
+     */
+    @POST
+    @Path("/solve/assignments")
+    @Consumes({ MediaType.APPLICATION_JSON, CompactRosterProvider.APPLICATION_SMILE })
+    @Produces(MediaType.APPLICATION_JSON)
+    public CompletionStage<StreamingOutput> solveAssignments(Roster problem) {
+        prepareProblem(problem);
+
+        CompletableFuture<Roster> finalBestSolutionFuture = new CompletableFuture<>();
+        solverService.solve(UUID.randomUUID(), problem,
+                bestSolution -> {
+                },
+                finalBestSolutionFuture::complete,
+                (id, throwable) -> finalBestSolutionFuture.completeExceptionally(
+                        new IllegalStateException("Solving failed", throwable)));
+        return finalBestSolutionFuture.thenApply(
+                solution -> new RosterAssignmentsOutput(solution, objectMapper.getFactory()));
+    }
+
+    /**
+     * Re-solve a previous solution after a change (e.g. an employee called in sick
+     * and was removed from employeeList).
+     * 
+     * Assignments outside the affected window are pinned, so only the window is
+     * reoptimized, starting from the previous assignments. The window is given
+     * by the optional from/to dates (ISO, inclusive, either one may be left
+     * out for an open-ended window), or else derived from the unassigned shifts.
+     */
+    @POST
+    @Path("/resolve")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public Roster solve(Roster problem) {
-        // Log input for debugging
-        System.out.println("Received roster problem:");
-        System.out.println("  Employees: " + (problem.getEmployeeList() != null ? problem.getEmployeeList().size() : 0));
-        System.out.println("  Shifts: " + (problem.getShiftList() != null ? problem.getShiftList().size() : 0));
-        
-        // Validate input
+    public Roster resolve(Roster previousSolution, @QueryParam("from") String from, @QueryParam("to") String to) {
+        LocalDate windowStart = parseDate("from", from);
+        LocalDate windowEnd = parseDate("to", to);
+        if (windowStart != null && windowEnd != null && windowEnd.isBefore(windowStart)) {
+            throw new BadRequestException("The to date (" + to + ") is before the from date (" + from + ")");
+        }
+        prepareProblem(previousSolution);
+        int pinnedCount = previousSolution.pinAssignmentsOutsideWindow(windowStart, windowEnd);
+        LOG.infof("Re-solving roster with %d of %d shifts pinned", pinnedCount, previousSolution.getTotalShiftCount());
+        return solvePrepared(previousSolution);
+    }
+
+    private static LocalDate parseDate(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Invalid " + name + " date (" + value + "), expected yyyy-MM-dd");
+        }
+    }
+
+    /**
+     * Solve the roster scheduling problem and stream every new best solution
+     * as a server-sent event while the solver runs.
+     * 
+     * Events: "best-solution" (each improvement), "final-solution" (once,
+     * then the stream closes) or "error". Closing the connection terminates
+     * the solve early.
+     */
+    @POST
+    @Path("/solve/stream")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void solveAndStream(Roster problem, @Context SseEventSink eventSink, @Context Sse sse) {
+        prepareProblem(problem);
+
+        UUID problemId = UUID.randomUUID();
+        solverService.solve(problemId, problem,
+                bestSolution -> {
+                    if (eventSink.isClosed()) {
+                        // Client went away, no point in solving further
+                        solverService.terminateEarly(problemId);
+                        return;
+                    }
+                    sendEvent(eventSink, sse, "best-solution", bestSolution);
+                },
+                finalBestSolution -> {
+                    sendEvent(eventSink, sse, "final-solution", finalBestSolution);
+                    eventSink.close();
+                },
+                (id, throwable) -> {
+                    sendEvent(eventSink, sse, "error", "Solving failed: " + throwable.getMessage());
+                    eventSink.close();
+                });
+    }
+
+    /**
+     * Solve many independent rosters (e.g. one per site or job order) in one call.
+     * 
+     * Streams a "result" event (index, jobId, roster or errorMessage) as each
+     * roster finishes, in completion order, then a "complete" event.
+     */
+    @POST
+    @Path("/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void solveBatch(List<Roster> problems, @Context SseEventSink eventSink, @Context Sse sse) {
+        if (problems == null || problems.isEmpty()) {
+            throw new IllegalArgumentException("No rosters provided for scheduling");
+        }
+        if (problems.size() > batchMaxSize) {
+            throw new IllegalArgumentException("Too many rosters in one batch (" + problems.size()
+                    + "), the maximum is " + batchMaxSize);
+        }
+        problems.forEach(this::prepareProblem);
+        // Rosters after the first ones are submitted from solver threads, fail the whole batch here instead
+        problems.forEach(problem -> solverService.validateSolverOptions(problem.getSolverOptions()));
+
+        new RosterBatch(problems, solverService, eventSink, sse).start(batchMaxConcurrentJobs);
+    }
+
+    private void sendEvent(SseEventSink eventSink, Sse sse, String name, Object data) {
+        if (eventSink.isClosed()) {
+            return;
+        }
+        eventSink.send(sse.newEventBuilder()
+                .name(name)
+                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(data)
+                .build());
+    }
+
+    /**
+     * Submit a roster problem without waiting for it to be solved.
+     * 
+     * Returns the job ID right away; poll GET /roster/jobs/{jobId} for the
+     * best solution so far.
+     */
+    @POST
+    @Path("/jobs")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public UUID submit(Roster problem) {
+        prepareProblem(problem);
+
+        UUID jobId = UUID.randomUUID();
+        RosterJob job = new RosterJob(jobId, problem);
+        jobMap.put(jobId, job);
+
+        job.setSolverJob(solverService.solve(jobId, problem,
+                job::setBestSolution,
+                finalBestSolution -> {
+                    job.setBestSolution(finalBestSolution);
+                    job.markFinished();
+                },
+                (id, throwable) -> {
+                    job.setErrorMessage(throwable.getMessage());
+                    job.markFinished();
+                }));
+        return jobId;
+    }
+
+    /**
+     * Forget jobs that finished longer than the TTL ago, so their solutions
+     * don't stay in memory if nobody deletes them. Runs every
+     * roster.jobs.eviction-interval, whether or not new jobs arrive.
+     */
+    private void evictFinishedJobs() {
+        long ttlMillis = finishedJobTtl.toMillis();
+        long nowMillis = System.currentTimeMillis();
+        jobMap.values().removeIf(job -> job.isFinishedBefore(ttlMillis, nowMillis));
+    }
+
+    /**
+     * Get the solver status and the best solution found so far
+     */
+    @GET
+    @Path("/jobs/{jobId}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public RosterJob getJob(@PathParam("jobId") UUID jobId) {
+        return findJob(jobId);
+    }
+
+    /**
+     * Stop solving early (if still running) and forget the job.
+     * 
+     * Returns the best solution found before termination.
+     */
+    @DELETE
+    @Path("/jobs/{jobId}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public RosterJob terminate(@PathParam("jobId") UUID jobId) {
+        RosterJob job = findJob(jobId);
+        solverService.terminateEarly(jobId);
+        jobMap.remove(jobId);
+        return job;
+    }
+
+    /**
+     * Add a shift opening to a running job, without restarting the solve.
+     * 409 if the job already has a shift with that shiftDayId.
+     */
+    @POST
+    @Path("/jobs/{jobId}/shifts")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public void addShift(@PathParam("jobId") UUID jobId, Shift shift) {
+        if (shift == null || shift.getShiftDayId() == null) {
+            throw new BadRequestException("No shiftDayId provided for the new shift");
+        }
+        if (findJob(jobId).getRoster().findShift(shift.getShiftDayId()) != null) {
+            throw new ClientErrorException("Roster job " + jobId + " already has a shift with ID "
+                    + shift.getShiftDayId(), Response.Status.CONFLICT);
+        }
+        addProblemChange(jobId, new AddShiftProblemChange(shift));
+    }
+
+    /**
+     * Move a shift of a running job to another date and/or time.
+     * Body: a shift with only the changed shiftDate and/or shiftTime.
+     */
+    @PUT
+    @Path("/jobs/{jobId}/shifts/{shiftDayId}/time")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public void changeShiftTime(@PathParam("jobId") UUID jobId, @PathParam("shiftDayId") String shiftDayId,
+            Shift changedShift) {
+        if (changedShift == null || (changedShift.getShiftDate() == null && changedShift.getShiftTime() == null)) {
+            throw new BadRequestException("No shiftDate or shiftTime provided for shift " + shiftDayId);
+        }
+        RosterJob job = findJob(jobId);
+        if (job.getRoster().findShift(shiftDayId) == null) {
+            throw new NotFoundException("No shift with ID " + shiftDayId + " in roster job " + jobId);
+        }
+        addProblemChange(jobId, new ChangeShiftTimeProblemChange(shiftDayId,
+                changedShift.getShiftDate(), changedShift.getShiftTime()));
+    }
+
+    /**
+     * Remove an employee from a running job, their shifts become unassigned
+     */
+    @DELETE
+    @Path("/jobs/{jobId}/employees/{assignmentId}")
+    public void removeEmployee(@PathParam("jobId") UUID jobId, @PathParam("assignmentId") String assignmentId) {
+        findEmployeeOrFail(jobId, assignmentId);
+        addProblemChange(jobId, new RemoveEmployeeProblemChange(assignmentId));
+    }
+
+    /**
+     * Replace the shift patterns an employee of a running job can work
+     */
+    @PUT
+    @Path("/jobs/{jobId}/employees/{assignmentId}/shift-patterns")
+    @Consumes(MediaType.APPLICATION_JSON)
+    public void changeEmployeeShiftPatterns(@PathParam("jobId") UUID jobId,
+            @PathParam("assignmentId") String assignmentId, List<String> shiftPatternIds) {
+        findEmployeeOrFail(jobId, assignmentId);
+        addProblemChange(jobId, new ChangeEmployeeShiftPatternsProblemChange(assignmentId, shiftPatternIds));
+    }
+
+    private void findEmployeeOrFail(UUID jobId, String assignmentId) {
+        if (findJob(jobId).getRoster().findEmployee(assignmentId) == null) {
+            throw new NotFoundException("No employee with ID " + assignmentId + " in roster job " + jobId);
+        }
+    }
+
+    /**
+     * 404 for an unknown job, 409 for a job that is not (or no longer) solving
+     */
+    private void addProblemChange(UUID jobId, ProblemChange<Roster> problemChange) {
+        RosterSolverJob solverJob = findJob(jobId).getSolverJob();
+        if (solverJob == null || solverJob.getSolverStatus() == SolverStatus.NOT_SOLVING) {
+            throw new ClientErrorException("Roster job " + jobId + " is not solving", Response.Status.CONFLICT);
+        }
+        try {
+            solverJob.addProblemChange(problemChange);
+        } catch (IllegalStateException e) {
+            // Finished between the status check and the change
+            throw new ClientErrorException("Roster job " + jobId + " is not solving", Response.Status.CONFLICT);
+        }
+    }
+
+    private RosterJob findJob(UUID jobId) {
+        RosterJob job = jobMap.get(jobId);
+        if (job == null) {
+            throw new NotFoundException("No roster job with ID " + jobId);
+        }
+        return job;
+    }
+
+    private void prepareProblem(Roster problem) {
         if (problem.getEmployeeList() == null || problem.getEmployeeList().isEmpty()) {
             throw new IllegalArgumentException("No employees provided for scheduling");
         }
-        
+
         if (problem.getShiftList() == null || problem.getShiftList().isEmpty()) {
             throw new IllegalArgumentException("No shifts provided for scheduling");
         }
 
-        UUID problemId = UUID.randomUUID();
-        
-        // Submit problem to OptaPlanner solver
-        SolverJob<Roster, UUID> solverJob = solverManager.solve(problemId, problem);
-        
-        Roster solution;
-        try {
-            // Wait for solving to complete
-            solution = solverJob.getFinalBestSolution();
-            
-            // Log solution quality
-            System.out.println("Solving completed:");
-            System.out.println("  Score: " + solution.getScore());
-            System.out.println("  Assigned shifts: " + solution.getAssignedShiftCount());
-            System.out.println("  Unassigned shifts: " + solution.getUnassignedShiftCount());
-            
-        } catch (InterruptedException | ExecutionException e) {
-            System.err.println("Solving failed: " + e.getMessage());
-            throw new IllegalStateException("Solving failed", e);
-        }
-
-        return solution;
+        problem.buildIndexes();
     }
     
     /**
@@ -0,0 +1,35 @@
+package org.acme.schooltimetabling.solver;
+
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.domain.Shift;
+import org.jboss.logging.Logger;
+import org.optaplanner.core.api.solver.change.ProblemChange;
+import org.optaplanner.core.api.solver.change.ProblemChangeDirector;
+
+/**
+ * Add a new shift opening to a roster that is being solved
+ */
+public class AddShiftProblemChange implements ProblemChange<Roster> {
+
+    private static final Logger LOG = Logger.getLogger(AddShiftProblemChange.class);
+
+    private final Shift shift;
+
+    public AddShiftProblemChange(Shift shift) {
+        this.shift = shift;
+    }
+
+    @Override
+    public void doChange(Roster workingSolution, ProblemChangeDirector problemChangeDirector) {
+        if (workingSolution.findShift(shift.getShiftDayId()) != null) {
+            // RosterResource rejects duplicates, but the shift may have been added since
+            LOG.warnf("Shift %s is already in the roster, not added again", shift.getShiftDayId());
+            return;
+        }
+        problemChangeDirector.addEntity(shift, addedShift -> {
+            workingSolution.getShiftList().add(addedShift);
+            // Interns a new pattern/job order and gives the shift its own value range
+            workingSolution.indexShift(addedShift);
+        });
+    }
+}
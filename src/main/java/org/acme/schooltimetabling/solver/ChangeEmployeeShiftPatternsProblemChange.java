@@ -0,0 +1,57 @@
+package org.acme.schooltimetabling.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.acme.schooltimetabling.domain.Employee;
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.domain.Shift;
+import org.optaplanner.core.api.solver.change.ProblemChange;
+import org.optaplanner.core.api.solver.change.ProblemChangeDirector;
+
+/**
+ * Change which shift patterns an employee can work in a roster that is being solved.
+ * 
+ * The employee is replaced by a new instance with the new patterns, because best
+ * solutions share the old one. Their shifts are unassigned around the change and
+ * those they can still work are reassigned after, which re-evaluates them with any
+ * score director (incremental included). The others are left unassigned (and unpinned).
+ */
+public class ChangeEmployeeShiftPatternsProblemChange implements ProblemChange<Roster> {
+
+    private final String assignmentId;
+    private final List<String> shiftPatternIds;
+
+    public ChangeEmployeeShiftPatternsProblemChange(String assignmentId, List<String> shiftPatternIds) {
+        this.assignmentId = assignmentId;
+        this.shiftPatternIds = shiftPatternIds;
+    }
+
+    @Override
+    public void doChange(Roster workingSolution, ProblemChangeDirector problemChangeDirector) {
+        Employee employee = workingSolution.findEmployee(assignmentId);
+        if (employee == null) {
+            return;
+        }
+        List<Shift> assignedShiftList = new ArrayList<>();
+        for (Shift shift : workingSolution.getShiftList()) {
+            if (shift.getAssignedEmployee() == employee) {
+                assignedShiftList.add(shift);
+                problemChangeDirector.changeVariable(shift, "assignedEmployee", changedShift -> changedShift.setAssignedEmployee(null));
+            }
+        }
+        Employee changedEmployee = new Employee(employee.getAssignmentId(), employee.getAssociateId(),
+                shiftPatternIds != null ? new ArrayList<>(shiftPatternIds) : null, employee.getJobOrderId());
+        problemChangeDirector.removeProblemFact(employee, workingSolution::removeEmployee);
+        problemChangeDirector.addProblemFact(changedEmployee, workingSolution::addEmployee);
+        for (Shift shift : assignedShiftList) {
+            if (shift.getEligibleEmployeeList().contains(changedEmployee)) {
+                problemChangeDirector.changeVariable(shift, "assignedEmployee",
+                        changedShift -> changedShift.setAssignedEmployee(changedEmployee));
+            } else if (shift.isPinned()) {
+                // A pinned shift nobody is assigned to would never be filled
+                problemChangeDirector.changeProblemProperty(shift, unpinnedShift -> unpinnedShift.setPinned(false));
+            }
+        }
+    }
+}
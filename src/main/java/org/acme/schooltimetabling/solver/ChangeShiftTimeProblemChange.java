@@ -0,0 +1,51 @@
+package org.acme.schooltimetabling.solver;
+
+import java.time.LocalDate;
+
+import org.acme.schooltimetabling.domain.Employee;
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.domain.Shift;
+import org.optaplanner.core.api.solver.change.ProblemChange;
+import org.optaplanner.core.api.solver.change.ProblemChangeDirector;
+
+/**
+ * Move a shift to another date and/or time range in a roster that is being solved
+ */
+public class ChangeShiftTimeProblemChange implements ProblemChange<Roster> {
+
+    private final String shiftDayId;
+    private final LocalDate shiftDate; // null = unchanged
+    private final String shiftTime; // null = unchanged
+
+    public ChangeShiftTimeProblemChange(String shiftDayId, LocalDate shiftDate, String shiftTime) {
+        this.shiftDayId = shiftDayId;
+        this.shiftDate = shiftDate;
+        this.shiftTime = shiftTime;
+    }
+
+    @Override
+    public void doChange(Roster workingSolution, ProblemChangeDirector problemChangeDirector) {
+        Shift shift = workingSolution.findShift(shiftDayId);
+        if (shift == null) {
+            return;
+        }
+        // Unassigned while its times change, so an incremental score calculator
+        // retracts the overlaps at the old times and inserts them at the new ones
+        Employee assignedEmployee = shift.getAssignedEmployee();
+        if (assignedEmployee != null) {
+            problemChangeDirector.changeVariable(shift, "assignedEmployee", changedShift -> changedShift.setAssignedEmployee(null));
+        }
+        problemChangeDirector.changeProblemProperty(shift, changedShift -> {
+            if (shiftDate != null) {
+                changedShift.setShiftDate(shiftDate);
+            }
+            if (shiftTime != null) {
+                changedShift.setShiftTime(shiftTime);
+            }
+        });
+        if (assignedEmployee != null) {
+            problemChangeDirector.changeVariable(shift, "assignedEmployee",
+                    changedShift -> changedShift.setAssignedEmployee(assignedEmployee));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.acme.schooltimetabling.solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.acme.schooltimetabling.domain.Employee;
+import org.acme.schooltimetabling.domain.EmployeeStrengthComparator;
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.domain.Shift;
+import org.acme.schooltimetabling.domain.ShiftDifficultyComparator;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.phase.custom.CustomPhaseCommand;
+
+/**
+ * Construction tuned to rostering: assigns the most constrained unassigned
+ * shifts first (fewest eligible employees, then earliest start), each to the
+ * weakest eligible employee without an overlapping shift, found through a
+ * ShiftIntervalIndex. Shifts nobody can take without an overlap stay
+ * unassigned for the next phases.
+ */
+public class GreedyConstructionPhaseCommand implements CustomPhaseCommand<Roster> {
+
+    @Override
+    public void changeWorkingSolution(ScoreDirector<Roster> scoreDirector) {
+        Roster roster = scoreDirector.getWorkingSolution();
+        ShiftIntervalIndex intervalIndex = new ShiftIntervalIndex();
+        List<Shift> unassignedShiftList = new ArrayList<>();
+        for (Shift shift : roster.getShiftList()) {
+            if (shift.getAssignedEmployee() != null) {
+                intervalIndex.add(shift.getAssignedEmployee(), shift);
+            } else if (!shift.isPinned()) {
+                unassignedShiftList.add(shift);
+            }
+        }
+        unassignedShiftList.sort(Collections.reverseOrder(new ShiftDifficultyComparator()));
+
+        // Eligible lists are shared between shifts, so sort each one once
+        EmployeeStrengthComparator strengthComparator = new EmployeeStrengthComparator();
+        Map<List<Employee>, List<Employee>> weakestFirstMap = new IdentityHashMap<>();
+        for (Shift shift : unassignedShiftList) {
+            List<Employee> weakestFirstList = weakestFirstMap.computeIfAbsent(shift.getEligibleEmployeeList(),
+                    eligibleEmployeeList -> {
+                        List<Employee> sortedList = new ArrayList<>(eligibleEmployeeList);
+                        sortedList.sort(strengthComparator);
+                        return sortedList;
+                    });
+            for (Employee employee : weakestFirstList) {
+                if (!intervalIndex.overlapsAny(employee, shift)) {
+                    scoreDirector.beforeVariableChanged(shift, "assignedEmployee");
+                    shift.setAssignedEmployee(employee);
+                    scoreDirector.afterVariableChanged(shift, "assignedEmployee");
+                    scoreDirector.triggerVariableListeners();
+                    intervalIndex.add(employee, shift);
+                    break;
+                }
+            }
+        }
+    }
+}
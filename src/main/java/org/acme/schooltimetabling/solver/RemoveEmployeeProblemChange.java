@@ -0,0 +1,40 @@
+package org.acme.schooltimetabling.solver;
+
+import org.acme.schooltimetabling.domain.Employee;
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.domain.Shift;
+import org.optaplanner.core.api.solver.change.ProblemChange;
+import org.optaplanner.core.api.solver.change.ProblemChangeDirector;
+
+/**
+ * Remove an employee (e.g. called in sick) from a roster that is being solved.
+ * Their shifts become unassigned, even pinned ones.
+ */
+public class RemoveEmployeeProblemChange implements ProblemChange<Roster> {
+
+    private final String assignmentId;
+
+    public RemoveEmployeeProblemChange(String assignmentId) {
+        this.assignmentId = assignmentId;
+    }
+
+    @Override
+    public void doChange(Roster workingSolution, ProblemChangeDirector problemChangeDirector) {
+        Employee employee = workingSolution.findEmployee(assignmentId);
+        if (employee == null) {
+            return; // Already removed
+        }
+        for (Shift shift : workingSolution.getShiftList()) {
+            if (shift.getAssignedEmployee() == employee) {
+                if (shift.isPinned()) {
+                    problemChangeDirector.changeProblemProperty(shift, pinnedShift -> pinnedShift.setPinned(false));
+                }
+                problemChangeDirector.changeVariable(shift, "assignedEmployee",
+                        unassignedShift -> unassignedShift.setAssignedEmployee(null));
+            }
+        }
+        // Replaces the employee list and the eligible value ranges with copies
+        // without the employee (best solutions being serialized share the old ones)
+        problemChangeDirector.removeProblemFact(employee, workingSolution::removeEmployee);
+    }
+}
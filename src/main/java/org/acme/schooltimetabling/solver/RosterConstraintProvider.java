@@ -1,14 +1,14 @@
 package org.acme.schooltimetabling.solver;
 
 import org.acme.schooltimetabling.domain.Shift;
-import org.optaplanner.core.api.score.buildin.hardsoft.HardSoftScore;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
 import org.optaplanner.core.api.score.stream.Constraint;
 import org.optaplanner.core.api.score.stream.ConstraintFactory;
 import org.optaplanner.core.api.score.stream.ConstraintProvider;
 import org.optaplanner.core.api.score.stream.Joiners;
 
 /**
- * ENHANCED constraint provider with two-level date/time checking
+ * ENHANCED constraint provider with absolute date/time checking
  */
 public class RosterConstraintProvider implements ConstraintProvider {
 
@@ -16,32 +16,30 @@ public class RosterConstraintProvider implements ConstraintProvider {
     public Constraint[] defineConstraints(ConstraintFactory constraintFactory) {
         return new Constraint[] {
                 // Hard constraints
-                employeeConflictingSameDayOverlappingShifts(constraintFactory),
+                employeeConflictingOverlappingShifts(constraintFactory),
                 employeeCannotWorkIncompatibleShiftPattern(constraintFactory),
+                employeeMustMatchShiftJobOrder(constraintFactory),
 
-                // Soft constraints
+                // Medium constraints
                 preferFewerUnassignedShifts(constraintFactory),
         };
     }
 
     /**
-     * HARD: Employee cannot work overlapping shifts on the same day
-     * Two-level check: (1) Same date AND (2) Overlapping times
+     * HARD: Employee cannot work overlapping shifts
+     * Indexed on the employee, overlap found by Bavet's range index on the
+     * absolute start/end minutes, so an overnight shift also conflicts
+     * with the next day's early shifts
      */
-    Constraint employeeConflictingSameDayOverlappingShifts(ConstraintFactory constraintFactory) {
-        return constraintFactory.forEach(Shift.class)
-                .join(Shift.class,
+    Constraint employeeConflictingOverlappingShifts(ConstraintFactory constraintFactory) {
+        // forEach skips unassigned shifts, forEachUniquePair prevents duplicate pairs
+        return constraintFactory.forEachUniquePair(Shift.class,
                         // Level 1: Same employee assigned
                         Joiners.equal(Shift::getAssignedEmployee),
-                        // Level 2: Same date
-                        Joiners.equal(Shift::getShiftDate),
-                        // Prevent duplicate pairs
-                        Joiners.lessThan(Shift::getShiftDayId))
-                // Level 3: Check time overlap and ensure employee is assigned
-                .filter((shift1, shift2) -> shift1.getAssignedEmployee() != null &&
-                        shift1.overlapsTime(shift2))
-                .penalize(HardSoftScore.ONE_HARD)
-                .asConstraint("Employee cannot work overlapping shifts on same day");
+                        // Level 2: Overlapping absolute time
+                        Joiners.overlapping(Shift::getStartMinute, Shift::getEndMinute))
+                .penalize(HardMediumSoftScore.ONE_HARD)
+                .asConstraint("Employee cannot work overlapping shifts");
     }
 
     /**
@@ -50,18 +48,32 @@ public class RosterConstraintProvider implements ConstraintProvider {
     Constraint employeeCannotWorkIncompatibleShiftPattern(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(Shift.class)
                 .filter(shift -> shift.getAssignedEmployee() != null &&
-                        !shift.getAssignedEmployee().canWorkShiftPattern(shift.getShiftPatternId()))
-                .penalize(HardSoftScore.ONE_HARD)
+                        !shift.getAssignedEmployee().canWorkShift(shift))
+                .penalize(HardMediumSoftScore.ONE_HARD)
                 .asConstraint("Employee cannot work incompatible shift pattern");
     }
 
     /**
-     * SOFT: Minimize unassigned shifts
+     * HARD: Employee's job order must match the shift's job order
+     * (the eligible value ranges already exclude mismatches, this catches
+     * pre-assigned shifts)
      */
-    Constraint preferFewerUnassignedShifts(ConstraintFactory constraintFactory) {
+    Constraint employeeMustMatchShiftJobOrder(ConstraintFactory constraintFactory) {
         return constraintFactory.forEach(Shift.class)
+                .filter(shift -> shift.getAssignedEmployee() != null &&
+                        !shift.getAssignedEmployee().matchesJobOrder(shift))
+                .penalize(HardMediumSoftScore.ONE_HARD)
+                .asConstraint("Employee must match shift job order");
+    }
+
+    /**
+     * MEDIUM: Minimize unassigned shifts
+     * (forEachIncludingNullVars, because forEach skips unassigned shifts)
+     */
+    Constraint preferFewerUnassignedShifts(ConstraintFactory constraintFactory) {
+        return constraintFactory.forEachIncludingNullVars(Shift.class)
                 .filter(shift -> shift.getAssignedEmployee() == null)
-                .penalize(HardSoftScore.ONE_SOFT)
+                .penalize(HardMediumSoftScore.ONE_MEDIUM)
                 .asConstraint("Prefer fewer unassigned shifts");
     }
 }
\ No newline at end of file
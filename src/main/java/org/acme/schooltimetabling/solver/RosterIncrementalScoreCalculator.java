@@ -0,0 +1,103 @@
+package org.acme.schooltimetabling.solver;
+
+import org.acme.schooltimetabling.domain.Employee;
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.domain.Shift;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.score.calculator.IncrementalScoreCalculator;
+
+/**
+ * Hand-written alternative to RosterConstraintProvider, same constraints and
+ * weights (roster.solver.score-calculator=INCREMENTAL selects it):
+ * - HARD: overlapping shifts of an employee, counted per pair through a
+ *   ShiftIntervalIndex instead of a join
+ * - HARD: incompatible shift pattern (bitset test) and job order mismatch
+ * - MEDIUM: unassigned shifts
+ * 
+ * Problem changes must unassign a shift before changing its times or its
+ * employee's eligibility, and reassign it after (see the ProblemChanges).
+ */
+public class RosterIncrementalScoreCalculator implements IncrementalScoreCalculator<Roster, HardMediumSoftScore> {
+
+    private ShiftIntervalIndex intervalIndex;
+    private int hardScore;
+    private int mediumScore;
+
+    @Override
+    public void resetWorkingSolution(Roster workingSolution) {
+        intervalIndex = new ShiftIntervalIndex();
+        hardScore = 0;
+        mediumScore = 0;
+        for (Shift shift : workingSolution.getShiftList()) {
+            insert(shift);
+        }
+    }
+
+    @Override
+    public void beforeEntityAdded(Object entity) {
+        // Do nothing
+    }
+
+    @Override
+    public void afterEntityAdded(Object entity) {
+        insert((Shift) entity);
+    }
+
+    @Override
+    public void beforeVariableChanged(Object entity, String variableName) {
+        retract((Shift) entity);
+    }
+
+    @Override
+    public void afterVariableChanged(Object entity, String variableName) {
+        insert((Shift) entity);
+    }
+
+    @Override
+    public void beforeEntityRemoved(Object entity) {
+        retract((Shift) entity);
+    }
+
+    @Override
+    public void afterEntityRemoved(Object entity) {
+        // Do nothing
+    }
+
+    private void insert(Shift shift) {
+        Employee employee = shift.getAssignedEmployee();
+        if (employee == null) {
+            mediumScore--;
+            return;
+        }
+        // Each overlapping pair is counted once: against the shifts already in the index
+        hardScore -= intervalIndex.countOverlaps(employee, shift);
+        intervalIndex.add(employee, shift);
+        if (!employee.canWorkShift(shift)) {
+            hardScore--;
+        }
+        if (!employee.matchesJobOrder(shift)) {
+            hardScore--;
+        }
+    }
+
+    private void retract(Shift shift) {
+        Employee employee = shift.getAssignedEmployee();
+        if (employee == null) {
+            mediumScore++;
+            return;
+        }
+        intervalIndex.remove(employee, shift);
+        hardScore += intervalIndex.countOverlaps(employee, shift);
+        if (!employee.canWorkShift(shift)) {
+            hardScore++;
+        }
+        if (!employee.matchesJobOrder(shift)) {
+            hardScore++;
+        }
+    }
+
+    @Override
+    public HardMediumSoftScore calculateScore() {
+        return HardMediumSoftScore.of(hardScore, mediumScore, 0);
+    }
+}
@@ -0,0 +1,119 @@
+package org.acme.schooltimetabling.solver;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.domain.Shift;
+import org.optaplanner.core.api.score.director.ScoreDirector;
+import org.optaplanner.core.impl.partitionedsearch.partitioner.SolutionPartitioner;
+
+/**
+ * Splits a roster into independent parts for partitioned search:
+ * - DATE: consecutive date windows with about the same number of shifts each.
+ *   Only overnight shifts at a window boundary can conflict across parts.
+ * - SHIFT_PATTERN: whole patterns, largest first into the smallest part.
+ *   An employee eligible for several patterns can get conflicting shifts in
+ *   different parts.
+ * Either way, the local search phase after the partitioned search repairs
+ * the cross-part conflicts on the merged roster.
+ * 
+ * Every part keeps all employees, they are problem facts shared by the parts.
+ */
+public class RosterPartitioner implements SolutionPartitioner<Roster> {
+
+    public static final String PARTITION_BY_DATE = "DATE";
+    public static final String PARTITION_BY_SHIFT_PATTERN = "SHIFT_PATTERN";
+
+    private static final int MIN_SHIFTS_PER_PART = 50;
+
+    // Custom properties (solutionPartitionerCustomProperties)
+    private String partitionBy = PARTITION_BY_DATE;
+    private Integer partCount; // null = runnablePartThreadLimit
+
+    public void setPartitionBy(String partitionBy) {
+        this.partitionBy = partitionBy;
+    }
+
+    public void setPartCount(Integer partCount) {
+        this.partCount = partCount;
+    }
+
+    @Override
+    public List<Roster> splitWorkingSolution(ScoreDirector<Roster> scoreDirector, Integer runnablePartThreadLimit) {
+        Roster originalRoster = scoreDirector.getWorkingSolution();
+        List<Shift> originalShiftList = originalRoster.getShiftList();
+        int maxPartCount = partCount != null ? partCount
+                : runnablePartThreadLimit != null ? runnablePartThreadLimit
+                : Runtime.getRuntime().availableProcessors();
+        int resolvedPartCount = Math.max(1, Math.min(maxPartCount, originalShiftList.size() / MIN_SHIFTS_PER_PART));
+
+        List<List<Shift>> partShiftLists;
+        if (PARTITION_BY_DATE.equals(partitionBy)) {
+            partShiftLists = splitByDate(originalShiftList, resolvedPartCount);
+        } else if (PARTITION_BY_SHIFT_PATTERN.equals(partitionBy)) {
+            partShiftLists = splitByShiftPattern(originalShiftList, resolvedPartCount);
+        } else {
+            throw new IllegalArgumentException("Unsupported partitionBy (" + partitionBy + "), expected "
+                    + PARTITION_BY_DATE + " or " + PARTITION_BY_SHIFT_PATTERN);
+        }
+
+        List<Roster> partList = new ArrayList<>(partShiftLists.size());
+        for (List<Shift> partShiftList : partShiftLists) {
+            if (partShiftList.isEmpty()) {
+                continue;
+            }
+            List<Shift> partShiftCopyList = new ArrayList<>(partShiftList.size());
+            for (Shift shift : partShiftList) {
+                partShiftCopyList.add(new Shift(shift));
+            }
+            partList.add(new Roster(originalRoster.getEmployeeList(), partShiftCopyList));
+        }
+        return partList;
+    }
+
+    private static List<List<Shift>> splitByDate(List<Shift> shiftList, int partCount) {
+        // Sorted by date, so each part is a consecutive window
+        TreeMap<LocalDate, List<Shift>> dateShiftMap = shiftList.stream()
+                .collect(Collectors.groupingBy(shift -> shift.getShiftDate() != null ? shift.getShiftDate() : LocalDate.MIN,
+                        TreeMap::new, Collectors.toList()));
+        int targetPartSize = (shiftList.size() + partCount - 1) / partCount;
+        List<List<Shift>> partShiftLists = new ArrayList<>(partCount);
+        List<Shift> currentPart = new ArrayList<>(targetPartSize);
+        for (List<Shift> dateShiftList : dateShiftMap.values()) {
+            // Never split a date: same-day overlaps stay inside one part
+            if (!currentPart.isEmpty() && currentPart.size() + dateShiftList.size() > targetPartSize
+                    && partShiftLists.size() < partCount - 1) {
+                partShiftLists.add(currentPart);
+                currentPart = new ArrayList<>(targetPartSize);
+            }
+            currentPart.addAll(dateShiftList);
+        }
+        partShiftLists.add(currentPart);
+        return partShiftLists;
+    }
+
+    private static List<List<Shift>> splitByShiftPattern(List<Shift> shiftList, int partCount) {
+        Map<String, List<Shift>> patternShiftMap = shiftList.stream()
+                .collect(Collectors.groupingBy(shift -> String.valueOf(shift.getShiftPatternId())));
+        List<List<Shift>> patternShiftLists = new ArrayList<>(patternShiftMap.values());
+        patternShiftLists.sort(Comparator.comparingInt((List<Shift> list) -> list.size()).reversed());
+
+        List<List<Shift>> partShiftLists = new ArrayList<>(partCount);
+        for (int i = 0; i < partCount; i++) {
+            partShiftLists.add(new ArrayList<>());
+        }
+        for (List<Shift> patternShiftList : patternShiftLists) {
+            List<Shift> smallestPart = partShiftLists.stream()
+                    .min(Comparator.comparingInt(List::size))
+                    .orElseThrow();
+            smallestPart.addAll(patternShiftList);
+        }
+        return partShiftLists;
+    }
+}
@@ -0,0 +1,141 @@
+package org.acme.schooltimetabling.solver;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.acme.schooltimetabling.domain.Roster;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverStatus;
+import org.optaplanner.core.api.solver.change.ProblemChange;
+
+/**
+ * A roster job submitted to RosterSolverService, solved by its own Solver on
+ * one of the service's solver threads.
+ *
+ * It is SOLVING_SCHEDULED until a solver thread picks it up. Problem changes
+ * go straight to its Solver, which applies them once it solves. Terminating
+ * never waits: a job that did not start yet never will, a solving one is
+ * told to stop.
+ */
+public class RosterSolverJob {
+
+    private final UUID problemId;
+    private final Roster problem;
+    final RosterSolverMetrics.JobMetrics jobMetrics;
+    final Consumer<Roster> bestSolutionConsumer;
+    final Consumer<Roster> finalBestSolutionConsumer;
+    final BiConsumer<UUID, Throwable> exceptionHandler;
+
+    private final CompletableFuture<Roster> finalBestSolutionFuture = new CompletableFuture<>();
+    private Solver<Roster> solver; // Guarded by this, null once solving ended (it holds the working solution)
+    private SolverStatus solverStatus = SolverStatus.SOLVING_SCHEDULED; // Guarded by this
+    private boolean terminationRequested = false; // Guarded by this
+
+    RosterSolverJob(UUID problemId, Roster problem, Solver<Roster> solver, RosterSolverMetrics.JobMetrics jobMetrics,
+            Consumer<Roster> bestSolutionConsumer, Consumer<Roster> finalBestSolutionConsumer,
+            BiConsumer<UUID, Throwable> exceptionHandler) {
+        this.problemId = problemId;
+        this.problem = problem;
+        this.solver = solver;
+        this.jobMetrics = jobMetrics;
+        this.bestSolutionConsumer = bestSolutionConsumer;
+        this.finalBestSolutionConsumer = finalBestSolutionConsumer;
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    public UUID getProblemId() {
+        return problemId;
+    }
+
+    Roster getProblem() {
+        return problem;
+    }
+
+    /**
+     * SOLVING_SCHEDULED while waiting for a solver thread, NOT_SOLVING once
+     * finished, terminated or failed
+     */
+    public synchronized SolverStatus getSolverStatus() {
+        return solverStatus;
+    }
+
+    /**
+     * @throws IllegalStateException if the job is no longer solving
+     */
+    public synchronized void addProblemChange(ProblemChange<Roster> problemChange) {
+        if (solverStatus == SolverStatus.NOT_SOLVING) {
+            throw new IllegalStateException("Roster job " + problemId + " is not solving");
+        }
+        solver.addProblemChange(problemChange);
+    }
+
+    /**
+     * Wait for solving to end
+     *
+     * @throws java.util.concurrent.CancellationException if the job was terminated before it started
+     */
+    public Roster getFinalBestSolution() throws InterruptedException, ExecutionException {
+        return finalBestSolutionFuture.get();
+    }
+
+    /**
+     * Called on the solver thread right before it solves
+     *
+     * @return false if the job was terminated while it waited, it must not be solved
+     */
+    synchronized boolean solvingStarted() {
+        if (solverStatus != SolverStatus.SOLVING_SCHEDULED) {
+            return false;
+        }
+        solverStatus = SolverStatus.SOLVING_ACTIVE;
+        return true;
+    }
+
+    /**
+     * Stop solving, without waiting for it
+     *
+     * @return true if the job had not started solving, it never will
+     */
+    synchronized boolean terminateEarly() {
+        terminationRequested = true;
+        if (solverStatus == SolverStatus.SOLVING_SCHEDULED) {
+            solverStatus = SolverStatus.NOT_SOLVING;
+            solver = null;
+            finalBestSolutionFuture.cancel(false);
+            return true;
+        }
+        if (solverStatus == SolverStatus.SOLVING_ACTIVE) {
+            solver.terminateEarly();
+        }
+        return false;
+    }
+
+    /**
+     * Called on the solver thread for every new best solution
+     */
+    synchronized void bestSolutionChanged() {
+        if (terminationRequested && solver != null) {
+            // A termination right as the solve started may have been reset by the solver
+            solver.terminateEarly();
+        }
+    }
+
+    void solvingEnded(Roster finalBestSolution) {
+        synchronized (this) {
+            solverStatus = SolverStatus.NOT_SOLVING;
+            solver = null;
+        }
+        finalBestSolutionFuture.complete(finalBestSolution);
+    }
+
+    void solvingFailed(Throwable throwable) {
+        synchronized (this) {
+            solverStatus = SolverStatus.NOT_SOLVING;
+            solver = null;
+        }
+        finalBestSolutionFuture.completeExceptionally(throwable);
+    }
+}
@@ -0,0 +1,209 @@
+package org.acme.schooltimetabling.solver;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.acme.schooltimetabling.domain.Roster;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.impl.solver.DefaultSolver;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+/**
+ * Micrometer metrics for roster solving, tagged by roster size bucket.
+ * 
+ * OptaPlanner's own solver metrics are tagged per job (solver.id), an
+ * unbounded number of series, so a meter filter denies them. Instead, the
+ * score calculation count and speed of each job are recorded per size bucket
+ * once its solve returned. OptaPlanner 9's Solver interface has no such count,
+ * so it is read from DefaultSolver (as OptaPlanner's benchmarker does); it
+ * includes the calculations of move threads and partitions.
+ * 
+ * There is no moves evaluated metric: OptaPlanner 9 keeps no move evaluation
+ * count per solve, only the moves per step in its per-job meters. The score
+ * calculation count is the nearest measure, every evaluated move is scored.
+ */
+@ApplicationScoped
+public class RosterSolverMetrics {
+
+    static final String SIZE_TAG = "roster.size";
+    static final String SOLVER_ID_TAG = "solver.id";
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    private final AtomicInteger queuedJobCount = new AtomicInteger();
+    private final AtomicInteger activeJobCount = new AtomicInteger();
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("roster.solver.jobs.queued", queuedJobCount, AtomicInteger::get)
+                .description("Submitted roster jobs waiting for a solver thread")
+                .register(meterRegistry);
+        Gauge.builder("roster.solver.jobs.active", activeJobCount, AtomicInteger::get)
+                .description("Roster jobs being solved")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Deny OptaPlanner's per-job meters (tagged with the job's solver.id):
+     * every finished job would leave its series behind. This class records
+     * the ones needed per size bucket instead.
+     */
+    @Produces
+    @Singleton
+    MeterFilter denyPerJobSolverMetersFilter() {
+        return MeterFilter.deny(id -> id.getTag(SOLVER_ID_TAG) != null);
+    }
+
+    /**
+     * Start tracking a job when it is submitted
+     */
+    public JobMetrics jobSubmitted(Roster problem) {
+        queuedJobCount.incrementAndGet();
+        return new JobMetrics(sizeBucket(problem));
+    }
+
+    /**
+     * Bucket by shift count, so the tag has a handful of values
+     */
+    static String sizeBucket(Roster problem) {
+        int shiftCount = problem.getTotalShiftCount();
+        if (shiftCount < 100) {
+            return "xs";
+        } else if (shiftCount < 1_000) {
+            return "s";
+        } else if (shiftCount < 10_000) {
+            return "m";
+        } else {
+            return "l";
+        }
+    }
+
+    /**
+     * Metrics of one job, called from the solver threads
+     */
+    public final class JobMetrics {
+
+        private final Tags tags;
+        private final long submittedNanos = System.nanoTime();
+        private final AtomicBoolean dequeued = new AtomicBoolean(false);
+        private volatile long solvingStartedNanos;
+        private volatile boolean feasibleReached = false;
+
+        private JobMetrics(String sizeBucket) {
+            this.tags = Tags.of(SIZE_TAG, sizeBucket);
+        }
+
+        /**
+         * Called on the solver thread, right before it solves
+         */
+        public void solvingStarted() {
+            solvingStartedNanos = System.nanoTime();
+            dequeue();
+            activeJobCount.incrementAndGet();
+            Timer.builder("roster.solver.queue.wait")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(solvingStartedNanos - submittedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        public void bestSolutionChanged(Roster bestSolution) {
+            if (feasibleReached || bestSolution.getScore() == null
+                    || !bestSolution.getScore().isSolutionInitialized() || !bestSolution.isFeasible()) {
+                return;
+            }
+            feasibleReached = true;
+            Timer.builder("roster.solver.time.to.first.feasible")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - solvingStartedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * @param solver the job's solver, its solve returned
+         */
+        public void solvingEnded(Roster finalBestSolution, Solver<Roster> solver) {
+            activeJobCount.decrementAndGet();
+            long solvingNanos = System.nanoTime() - solvingStartedNanos;
+            Timer.builder("roster.solver.solve.duration")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(solvingNanos, TimeUnit.NANOSECONDS);
+            if (solver instanceof DefaultSolver) {
+                long calculationCount = ((DefaultSolver<Roster>) solver).getScoreCalculationCount();
+                DistributionSummary.builder("roster.solver.score.calculation.count")
+                        .description("Score calculations per solved roster")
+                        .tags(tags)
+                        .register(meterRegistry)
+                        .record(calculationCount);
+                if (solvingNanos > 0L) {
+                    DistributionSummary.builder("roster.solver.score.calculation.speed")
+                            .description("Score calculations per second, per solved roster")
+                            .baseUnit("calculations/s")
+                            .tags(tags)
+                            .register(meterRegistry)
+                            .record(calculationCount * 1_000_000_000.0 / solvingNanos);
+                }
+            }
+            HardMediumSoftScore score = finalBestSolution.getScore();
+            if (score != null) {
+                // Summaries ignore negative values, so record the penalties
+                recordPenalty("hard", score.hardScore());
+                recordPenalty("medium", score.mediumScore());
+                recordPenalty("soft", score.softScore());
+            }
+        }
+
+        public void solvingFailed() {
+            if (solvingStartedNanos == 0L) {
+                dequeue();
+            } else {
+                activeJobCount.decrementAndGet();
+            }
+            meterRegistry.counter("roster.solver.errors", tags).increment();
+        }
+
+        /**
+         * The job was terminated early. One still queued never reaches a solver
+         * consumer, so it leaves the queue here.
+         * 
+         * @return true if the job had not started solving
+         */
+        public boolean solvingTerminated() {
+            if (solvingStartedNanos != 0L) {
+                return false;
+            }
+            dequeue();
+            return true;
+        }
+
+        private void dequeue() {
+            // Once, whichever of start, failure or termination comes first
+            if (dequeued.compareAndSet(false, true)) {
+                queuedJobCount.decrementAndGet();
+            }
+        }
+
+        private void recordPenalty(String level, int levelScore) {
+            DistributionSummary.builder("roster.solver.final.penalty")
+                    .tags(tags.and("level", level))
+                    .register(meterRegistry)
+                    .record(Math.max(0, -levelScore));
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package org.acme.schooltimetabling.solver;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.domain.Shift;
+import org.acme.schooltimetabling.domain.SolverOptions;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.jboss.logging.MDC;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.localsearch.LocalSearchPhaseConfig;
+import org.optaplanner.core.config.partitionedsearch.PartitionedSearchPhaseConfig;
+import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.SolverManagerConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Single entry point to start solving a roster, so every REST operation
+ * gets the same bookkeeping (metrics) around the solver.
+ * 
+ * Every job is solved by its own Solver on one pool of parallel solver count
+ * solver threads, whatever its SolverOptions: jobs beyond that wait in the
+ * pool's queue, so the jobs solving at the same time (times their move
+ * threads, see clampMoveThreadCount) never exceed the cores.
+ * 
+ * The Solver is built from a SolverConfig of its own: the configured one with
+ * the per-request SolverOptions (a moveThreadCount, a partitionBy) and a
+ * TerminationConfig for the job. That terminates at a spent limit scaled with
+ * the number of (shift, eligible employee) candidates, after an unimproved
+ * spent limit (a share of it), or at the configured best score limit; both
+ * limits are overridable per request.
+ * 
+ * With roster.solver.score-calculator=INCREMENTAL every Solver scores with
+ * RosterIncrementalScoreCalculator instead of the constraint streams.
+ * 
+ * The submission and the solving run with the job's MDC (jobId,
+ * employeeCount, shiftCount, and score at the end), so their logs, also those
+ * on solver threads, can be told apart per job. The consumers are called on
+ * the solver thread, so they must return quickly.
+ */
+@ApplicationScoped
+public class RosterSolverService {
+
+    private static final String MOVE_THREAD_COUNT_NONE = SolverConfig.MOVE_THREAD_COUNT_NONE;
+    private static final String MOVE_THREAD_COUNT_AUTO = SolverConfig.MOVE_THREAD_COUNT_AUTO;
+    private static final String PARTITION_BY_NONE = "NONE";
+    private static final String SCORE_CALCULATOR_CONSTRAINT_STREAMS = "CONSTRAINT_STREAMS";
+    private static final String SCORE_CALCULATOR_INCREMENTAL = "INCREMENTAL";
+
+    private static final Logger LOG = Logger.getLogger(RosterSolverService.class);
+
+    private static final String MDC_JOB_ID = "jobId";
+    private static final String MDC_EMPLOYEE_COUNT = "employeeCount";
+    private static final String MDC_SHIFT_COUNT = "shiftCount";
+    public static final String MDC_SCORE = "score";
+    private static final String[] MDC_KEYS = { MDC_JOB_ID, MDC_EMPLOYEE_COUNT, MDC_SHIFT_COUNT, MDC_SCORE };
+
+    // The partitioned search ends when the parts plateau, the rest of the budget merges them
+    private static final Duration PARTITIONED_SEARCH_UNIMPROVED_SPENT_LIMIT = Duration.ofSeconds(2);
+
+    @Inject
+    SolverConfig solverConfig;
+
+    @Inject
+    SolverManagerConfig solverManagerConfig;
+
+    @Inject
+    RosterSolverMetrics solverMetrics;
+
+    @ConfigProperty(name = "roster.solver.termination.min-spent-limit", defaultValue = "2s")
+    Duration minSpentLimit;
+
+    @ConfigProperty(name = "roster.solver.termination.max-spent-limit", defaultValue = "5m")
+    Duration maxSpentLimit;
+
+    @ConfigProperty(name = "roster.solver.termination.spent-limit-per-million-candidates", defaultValue = "20s")
+    Duration spentLimitPerMillionCandidates;
+
+    @ConfigProperty(name = "roster.solver.termination.unimproved-share", defaultValue = "0.2")
+    double unimprovedShare;
+
+    @ConfigProperty(name = "roster.solver.score-calculator", defaultValue = SCORE_CALCULATOR_CONSTRAINT_STREAMS)
+    String scoreCalculator;
+
+    // Jobs submitted and not finished yet
+    private final ConcurrentMap<UUID, RosterSolverJob> submittedJobMap = new ConcurrentHashMap<>();
+
+    // Parallel solver count threads, shared by all jobs whatever their SolverOptions
+    private ExecutorService solverThreadPool;
+
+    @PostConstruct
+    void createSolverThreadPool() {
+        AtomicInteger threadCount = new AtomicInteger();
+        solverThreadPool = Executors.newFixedThreadPool(resolveParallelSolverCount(), runnable -> {
+            Thread thread = new Thread(runnable, "roster-solver-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start solving asynchronously, the result is only available through the RosterSolverJob
+     */
+    public RosterSolverJob solve(UUID problemId, Roster problem) {
+        return solve(problemId, problem,
+                bestSolution -> {
+                },
+                finalBestSolution -> {
+                },
+                (id, throwable) -> {
+                });
+    }
+
+    /**
+     * Start solving asynchronously, as soon as a solver thread is free.
+     * 
+     * @param bestSolutionConsumer called for every new best solution
+     * @param finalBestSolutionConsumer called once when solving ends normally
+     * @param exceptionHandler called if solving fails
+     */
+    public RosterSolverJob solve(UUID problemId, Roster problem,
+            Consumer<Roster> bestSolutionConsumer,
+            Consumer<Roster> finalBestSolutionConsumer,
+            BiConsumer<UUID, Throwable> exceptionHandler) {
+        return callWithJobMdc(problemId, problem,
+                () -> submit(problemId, problem, bestSolutionConsumer, finalBestSolutionConsumer, exceptionHandler));
+    }
+
+    private RosterSolverJob submit(UUID problemId, Roster problem,
+            Consumer<Roster> bestSolutionConsumer,
+            Consumer<Roster> finalBestSolutionConsumer,
+            BiConsumer<UUID, Throwable> exceptionHandler) {
+        // Invalid solver options fail here, before the job is counted
+        SolverConfig jobSolverConfig = buildSolverConfig(problem);
+        Solver<Roster> solver = SolverFactory.<Roster> create(jobSolverConfig).buildSolver();
+        RosterSolverMetrics.JobMetrics jobMetrics = solverMetrics.jobSubmitted(problem);
+        RosterSolverJob job = new RosterSolverJob(problemId, problem, solver, jobMetrics,
+                bestSolutionConsumer, finalBestSolutionConsumer, exceptionHandler);
+        solver.addEventListener(event -> {
+            // Like SolverManager, skip the best solutions with problem changes still to apply
+            if (event.isEveryProblemChangeProcessed()) {
+                bestSolutionChanged(job, event.getNewBestSolution());
+            }
+        });
+        submittedJobMap.put(problemId, job);
+        TerminationConfig terminationConfig = jobSolverConfig.getTerminationConfig();
+        LOG.infof("Roster problem submitted, spent limit %s, unimproved spent limit %s",
+                terminationConfig.getSpentLimit(), terminationConfig.getUnimprovedSpentLimit());
+        try {
+            solverThreadPool.execute(() -> runWithJobMdc(problemId, problem, () -> runJob(job, solver)));
+        } catch (RejectedExecutionException e) {
+            // The application is shutting down
+            solvingFailed(job, e);
+        }
+        return job;
+    }
+
+    /**
+     * Solve a job on the solver thread that picked it up
+     */
+    private void runJob(RosterSolverJob job, Solver<Roster> solver) {
+        if (!job.solvingStarted()) {
+            // Terminated while it waited, terminateEarly(...) already ended it
+            return;
+        }
+        job.jobMetrics.solvingStarted();
+        LOG.info("Solving started");
+        Roster finalBestSolution;
+        try {
+            finalBestSolution = solver.solve(job.getProblem());
+        } catch (RuntimeException | Error e) {
+            solvingFailed(job, e);
+            return;
+        }
+        submittedJobMap.remove(job.getProblemId());
+        job.jobMetrics.solvingEnded(finalBestSolution, solver);
+        MDC.put(MDC_SCORE, String.valueOf(finalBestSolution.getScore()));
+        LOG.infof("Solving ended: %d assigned, %d unassigned shifts",
+                finalBestSolution.getAssignedShiftCount(), finalBestSolution.getUnassignedShiftCount());
+        job.solvingEnded(finalBestSolution);
+        try {
+            job.finalBestSolutionConsumer.accept(finalBestSolution);
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Final best solution consumer failed: %s", e.getMessage());
+        }
+    }
+
+    private void bestSolutionChanged(RosterSolverJob job, Roster bestSolution) {
+        job.bestSolutionChanged();
+        job.jobMetrics.bestSolutionChanged(bestSolution);
+        job.bestSolutionConsumer.accept(bestSolution);
+    }
+
+    private void solvingFailed(RosterSolverJob job, Throwable throwable) {
+        submittedJobMap.remove(job.getProblemId());
+        job.jobMetrics.solvingFailed();
+        LOG.errorf(throwable, "Solving failed: %s", throwable.getMessage());
+        job.solvingFailed(throwable);
+        job.exceptionHandler.accept(job.getProblemId(), throwable);
+    }
+
+    private static void runWithJobMdc(UUID problemId, Roster problem, Runnable action) {
+        callWithJobMdc(problemId, problem, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run with the job's MDC, then restore the caller's (a REST request may
+     * have set the same keys). Also used by RosterResource while it waits for
+     * a job, so both log under the same keys.
+     */
+    public static <T> T callWithJobMdc(UUID problemId, Roster problem, Supplier<T> action) {
+        Object[] previousValues = new Object[MDC_KEYS.length];
+        for (int i = 0; i < MDC_KEYS.length; i++) {
+            previousValues[i] = MDC.get(MDC_KEYS[i]);
+        }
+        MDC.put(MDC_JOB_ID, problemId.toString());
+        MDC.put(MDC_EMPLOYEE_COUNT, problem.getEmployeeList() != null ? problem.getEmployeeList().size() : 0);
+        MDC.put(MDC_SHIFT_COUNT, problem.getShiftList() != null ? problem.getShiftList().size() : 0);
+        MDC.remove(MDC_SCORE);
+        try {
+            return action.get();
+        } finally {
+            for (int i = 0; i < MDC_KEYS.length; i++) {
+                if (previousValues[i] == null) {
+                    MDC.remove(MDC_KEYS[i]);
+                } else {
+                    MDC.put(MDC_KEYS[i], previousValues[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Budget scaled with the search space: non-pinned shifts x eligible employees,
+     * capped at the max spent limit (a requested spentLimit too). The unimproved
+     * spent limit is a share of the effective spent limit, unless it is requested
+     * too. The best score limit is the configured one.
+     */
+    TerminationConfig buildTerminationConfig(Roster problem) {
+        SolverOptions solverOptions = problem.getSolverOptions();
+        Duration spentLimit;
+        if (solverOptions != null && solverOptions.getSpentLimit() != null) {
+            spentLimit = solverOptions.getSpentLimit().compareTo(maxSpentLimit) < 0
+                    ? solverOptions.getSpentLimit()
+                    : maxSpentLimit;
+        } else {
+            long candidateCount = 0L;
+            for (Shift shift : problem.getShiftList()) {
+                // Pinned shifts are not searched
+                if (!shift.isPinned() && shift.getEligibleEmployeeList() != null) {
+                    candidateCount += shift.getEligibleEmployeeList().size();
+                }
+            }
+            long scaledMillis = minSpentLimit.toMillis()
+                    + (long) (spentLimitPerMillionCandidates.toMillis() * (candidateCount / 1_000_000.0));
+            spentLimit = Duration.ofMillis(Math.min(scaledMillis, maxSpentLimit.toMillis()));
+        }
+        Duration unimprovedSpentLimit;
+        if (solverOptions != null && solverOptions.getUnimprovedSpentLimit() != null) {
+            unimprovedSpentLimit = solverOptions.getUnimprovedSpentLimit();
+        } else {
+            unimprovedSpentLimit = Duration.ofMillis(Math.max(1_000L, (long) (spentLimit.toMillis() * unimprovedShare)));
+        }
+        TerminationConfig configuredTerminationConfig = solverConfig.getTerminationConfig();
+        return new TerminationConfig()
+                .withSpentLimit(spentLimit)
+                .withUnimprovedSpentLimit(unimprovedSpentLimit)
+                .withBestScoreLimit(configuredTerminationConfig != null
+                        ? configuredTerminationConfig.getBestScoreLimit()
+                        : null);
+    }
+
+    /**
+     * Stop solving a job without waiting for it, so also usable from the job's
+     * own consumers. A job still waiting for a solver thread is dropped right
+     * away, without any consumer being called; a solving one ends as usual,
+     * with its best solution so far.
+     */
+    public void terminateEarly(UUID problemId) {
+        RosterSolverJob job = submittedJobMap.get(problemId);
+        if (job == null) {
+            // Unknown or already finished
+            return;
+        }
+        if (job.terminateEarly()) {
+            job.jobMetrics.solvingTerminated();
+            submittedJobMap.remove(problemId);
+            LOG.infof("Roster job %s terminated before it started solving", problemId);
+        }
+    }
+
+    /**
+     * Fail with an IllegalArgumentException for SolverOptions that solve(...)
+     * would reject, without submitting anything
+     */
+    public void validateSolverOptions(SolverOptions solverOptions) {
+        if (solverOptions == null) {
+            return;
+        }
+        if (solverOptions.getMoveThreadCount() != null) {
+            clampMoveThreadCount(solverOptions.getMoveThreadCount());
+        }
+        if (solverOptions.getPartitionBy() != null) {
+            validatePartitionBy(solverOptions.getPartitionBy());
+        }
+    }
+
+    private void validatePartitionBy(String partitionBy) {
+        if (!PARTITION_BY_NONE.equals(partitionBy) && !RosterPartitioner.PARTITION_BY_DATE.equals(partitionBy)
+                && !RosterPartitioner.PARTITION_BY_SHIFT_PATTERN.equals(partitionBy)) {
+            throw new IllegalArgumentException("Invalid partitionBy (" + partitionBy + "), expected "
+                    + PARTITION_BY_NONE + ", " + RosterPartitioner.PARTITION_BY_DATE + " or "
+                    + RosterPartitioner.PARTITION_BY_SHIFT_PATTERN);
+        }
+    }
+
+    /**
+     * The configured SolverConfig with the job's SolverOptions and TerminationConfig
+     */
+    private SolverConfig buildSolverConfig(Roster problem) {
+        SolverOptions solverOptions = problem.getSolverOptions();
+        String moveThreadCount = solverOptions != null && solverOptions.getMoveThreadCount() != null
+                ? clampMoveThreadCount(solverOptions.getMoveThreadCount())
+                : solverConfig.getMoveThreadCount();
+        String partitionBy = solverOptions != null && solverOptions.getPartitionBy() != null
+                ? solverOptions.getPartitionBy()
+                : PARTITION_BY_NONE;
+        validatePartitionBy(partitionBy);
+        SolverConfig jobSolverConfig = solverConfig.copyConfig()
+                .withMoveThreadCount(moveThreadCount)
+                .withTerminationConfig(buildTerminationConfig(problem));
+        if (isIncrementalScoreCalculator()) {
+            jobSolverConfig.setScoreDirectorFactoryConfig(new ScoreDirectorFactoryConfig()
+                    .withIncrementalScoreCalculatorClass(RosterIncrementalScoreCalculator.class));
+        }
+        if (PARTITION_BY_NONE.equals(partitionBy)) {
+            return jobSolverConfig;
+        }
+        // Solve the parts in parallel (default construction heuristic and local search per part),
+        // then a global local search repairs conflicts across parts until the solver terminates
+        PartitionedSearchPhaseConfig partitionedSearchPhaseConfig = new PartitionedSearchPhaseConfig()
+                .withSolutionPartitionerClass(RosterPartitioner.class)
+                .withSolutionPartitionerCustomProperties(Map.of("partitionBy", partitionBy))
+                .withTerminationConfig(buildPartitionedSearchTerminationConfig());
+        return jobSolverConfig.withPhases(partitionedSearchPhaseConfig, new LocalSearchPhaseConfig());
+    }
+
+    private boolean isIncrementalScoreCalculator() {
+        if (SCORE_CALCULATOR_INCREMENTAL.equals(scoreCalculator)) {
+            return true;
+        }
+        if (!SCORE_CALCULATOR_CONSTRAINT_STREAMS.equals(scoreCalculator)) {
+            throw new IllegalStateException("Invalid roster.solver.score-calculator (" + scoreCalculator
+                    + "), expected " + SCORE_CALCULATOR_CONSTRAINT_STREAMS + " or " + SCORE_CALCULATOR_INCREMENTAL);
+        }
+        return false;
+    }
+
+    private TerminationConfig buildPartitionedSearchTerminationConfig() {
+        return new TerminationConfig().withUnimprovedSpentLimit(PARTITIONED_SEARCH_UNIMPROVED_SPENT_LIMIT);
+    }
+
+    /**
+     * Limit move threads so that parallel solver jobs times move threads
+     * never exceeds the available cores: the solver thread pool keeps the jobs
+     * solving at the same time to the parallel solver count
+     */
+    String clampMoveThreadCount(String requestedMoveThreadCount) {
+        if (MOVE_THREAD_COUNT_NONE.equals(requestedMoveThreadCount)) {
+            return MOVE_THREAD_COUNT_NONE;
+        }
+        int maxMoveThreadCount = Runtime.getRuntime().availableProcessors() / resolveParallelSolverCount();
+        int moveThreadCount;
+        if (MOVE_THREAD_COUNT_AUTO.equals(requestedMoveThreadCount)) {
+            moveThreadCount = maxMoveThreadCount;
+        } else {
+            try {
+                moveThreadCount = Math.min(Integer.parseInt(requestedMoveThreadCount), maxMoveThreadCount);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid moveThreadCount (" + requestedMoveThreadCount
+                        + "), expected " + MOVE_THREAD_COUNT_NONE + ", " + MOVE_THREAD_COUNT_AUTO + " or a number");
+            }
+        }
+        // A single move thread only adds hand-over overhead
+        return moveThreadCount < 2 ? MOVE_THREAD_COUNT_NONE : Integer.toString(moveThreadCount);
+    }
+
+    private int resolveParallelSolverCount() {
+        String parallelSolverCount = solverManagerConfig.getParallelSolverCount();
+        if (parallelSolverCount == null || SolverManagerConfig.PARALLEL_SOLVER_COUNT_AUTO.equals(parallelSolverCount)) {
+            // Same rule as OptaPlanner's AUTO: half the cores
+            return Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        return Math.max(1, Integer.parseInt(parallelSolverCount));
+    }
+
+    @PreDestroy
+    void shutdownSolverThreads() {
+        submittedJobMap.keySet().forEach(this::terminateEarly);
+        solverThreadPool.shutdownNow();
+    }
+}
@@ -0,0 +1,100 @@
+package org.acme.schooltimetabling.solver;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.acme.schooltimetabling.domain.Employee;
+import org.acme.schooltimetabling.domain.Shift;
+
+/**
+ * Shifts per (employee, date), sorted by absolute start minute, to find the
+ * shifts of an employee that overlap a given shift in O(log n + overlaps).
+ * 
+ * A shift is filed under its start date. Overnight shifts run into the next
+ * day, so a lookup also searches the previous and the next day.
+ */
+public class ShiftIntervalIndex {
+
+    private static final long MINUTES_PER_DAY = 24L * 60L;
+
+    private final Map<Employee, Map<LocalDate, TreeMap<Long, List<Shift>>>> employeeDayMap = new HashMap<>();
+
+    public void add(Employee employee, Shift shift) {
+        employeeDayMap.computeIfAbsent(employee, e -> new HashMap<>())
+                .computeIfAbsent(dayKey(shift), day -> new TreeMap<>())
+                .computeIfAbsent(shift.getStartMinute(), start -> new ArrayList<>(1))
+                .add(shift);
+    }
+
+    public void remove(Employee employee, Shift shift) {
+        Map<LocalDate, TreeMap<Long, List<Shift>>> dayMap = employeeDayMap.get(employee);
+        if (dayMap == null) {
+            return;
+        }
+        LocalDate day = dayKey(shift);
+        TreeMap<Long, List<Shift>> startMap = dayMap.get(day);
+        if (startMap == null) {
+            return;
+        }
+        List<Shift> shiftList = startMap.get(shift.getStartMinute());
+        if (shiftList != null && shiftList.remove(shift) && shiftList.isEmpty()) {
+            startMap.remove(shift.getStartMinute());
+            if (startMap.isEmpty()) {
+                dayMap.remove(day);
+            }
+        }
+    }
+
+    /**
+     * Check if the employee already has a shift (other than this one) overlapping it
+     */
+    public boolean overlapsAny(Employee employee, Shift shift) {
+        return countOverlaps(employee, shift, 1) > 0;
+    }
+
+    /**
+     * Count the employee's shifts (other than this one) overlapping it
+     */
+    public int countOverlaps(Employee employee, Shift shift) {
+        return countOverlaps(employee, shift, Integer.MAX_VALUE);
+    }
+
+    private int countOverlaps(Employee employee, Shift shift, int limit) {
+        Map<LocalDate, TreeMap<Long, List<Shift>>> dayMap = employeeDayMap.get(employee);
+        if (dayMap == null) {
+            return 0;
+        }
+        LocalDate day = dayKey(shift);
+        int count = 0;
+        for (long dayOffset = -1; dayOffset <= 1 && count < limit; dayOffset++) {
+            TreeMap<Long, List<Shift>> startMap = dayMap.get(day.plusDays(dayOffset));
+            if (startMap == null) {
+                continue;
+            }
+            // Shifts starting before this one ends (and, filed under that day, at most ~2 days earlier)
+            NavigableMap<Long, List<Shift>> candidateMap = startMap.headMap(shift.getEndMinute(), false)
+                    .tailMap(shift.getStartMinute() - 2 * MINUTES_PER_DAY, true);
+            for (List<Shift> shiftList : candidateMap.values()) {
+                for (Shift other : shiftList) {
+                    if (other != shift && other.overlapsTime(shift)) {
+                        count++;
+                        if (count >= limit) {
+                            return count;
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private static LocalDate dayKey(Shift shift) {
+        // Date-less shifts are on the epoch day, like their absolute times
+        return shift.getShiftDate() != null ? shift.getShiftDate() : LocalDate.EPOCH;
+    }
+}
@@ -0,0 +1,55 @@
+package org.acme.schooltimetabling.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.acme.schooltimetabling.domain.Employee;
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.domain.Shift;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+
+class CompactRosterTest {
+
+    @Test
+    void roundTrip() {
+        Employee alice = new Employee("A1", "P1", List.of("DAY", "NIGHT"), "JOB_1");
+        Employee bob = new Employee("A2", "P2", List.of("DAY"), null);
+        LocalDate monday = LocalDate.of(2025, 5, 26);
+        Shift dayShift = new Shift("S1_opening_0", "S1", "DAY", "Day", "09:00 Am - 05:00 Pm", monday);
+        dayShift.setJobOrderId("JOB_1");
+        dayShift.setAssignedEmployee(alice);
+        dayShift.setPinned(true);
+        Shift nightShift = new Shift("S2", "S2", "NIGHT", "Night", "10:00 Pm - 06:00 Am", monday);
+        Roster roster = new Roster(List.of(alice, bob), List.of(dayShift, nightShift));
+        roster.setScore(HardMediumSoftScore.of(0, -1, 0));
+
+        CompactRoster compactRoster = CompactRoster.fromRoster(roster);
+        // Repeated strings are stored once
+        assertEquals(List.of("DAY", "NIGHT"), compactRoster.getShiftPatternIds());
+        assertEquals(List.of("JOB_1"), compactRoster.getJobOrderIds());
+
+        Roster copy = compactRoster.toRoster();
+        assertEquals(roster.getScore(), copy.getScore());
+        assertEquals(2, copy.getEmployeeList().size());
+        assertEquals(List.of("DAY", "NIGHT"), copy.getEmployeeList().get(0).getShiftPatternIds());
+        assertNull(copy.getEmployeeList().get(1).getJobOrderId());
+
+        Shift copiedDayShift = copy.getShiftList().get(0);
+        assertEquals("S1_opening_0", copiedDayShift.getShiftDayId());
+        assertEquals("S1", copiedDayShift.getOriginalShiftDayId());
+        assertEquals("JOB_1", copiedDayShift.getJobOrderId());
+        assertEquals(monday, copiedDayShift.getShiftDate());
+        assertEquals(dayShift.getStartMinute(), copiedDayShift.getStartMinute());
+        assertEquals(true, copiedDayShift.isPinned());
+        assertSame(copy.getEmployeeList().get(0), copiedDayShift.getAssignedEmployee());
+
+        Shift copiedNightShift = copy.getShiftList().get(1);
+        assertEquals(true, copiedNightShift.isOvernight());
+        assertNull(copiedNightShift.getAssignedEmployee());
+    }
+}
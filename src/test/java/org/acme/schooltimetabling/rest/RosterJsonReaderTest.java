@@ -0,0 +1,94 @@
+package org.acme.schooltimetabling.rest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.domain.Shift;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+class RosterJsonReaderTest {
+
+    @Test
+    void readRoster() throws Exception {
+        ObjectMapper objectMapper = buildObjectMapper();
+        // Shifts before employees, an assigned employee as an object and as an ID
+        String json = "{\"shiftList\": ["
+                + "{\"shiftDayId\": \"S1\", \"originalShiftDayId\": \"S1\", \"shiftPatternId\": \"NIGHT\","
+                + " \"shiftTime\": \"10:00 Pm - 06:00 Am\", \"shiftDate\": \"2025-05-26\","
+                + " \"assignedEmployee\": {\"assignmentId\": \"A1\"}, \"startTime\": \"22:00:00\"},"
+                + "{\"shiftDayId\": \"S2\", \"originalShiftDayId\": \"S2\", \"shiftPatternId\": \"NIGHT\","
+                + " \"shiftTime\": \"10:00 Pm - 06:00 Am\", \"shiftDate\": \"2025-05-27\","
+                + " \"assignedEmployee\": \"A1\"},"
+                + "{\"shiftDayId\": \"S3\", \"shiftPatternId\": \"NIGHT\", \"shiftTime\": \"10:00 Pm - 06:00 Am\"}],"
+                + " \"employeeList\": [{\"assignmentId\": \"A1\", \"associateId\": \"P1\", \"shiftPatternIds\": [\"NIGHT\"]}],"
+                + " \"score\": \"0hard/-1medium/0soft\", \"feasible\": true}";
+
+        Roster roster = objectMapper.readValue(json, Roster.class);
+
+        assertEquals("0hard/-1medium/0soft", roster.getScore().toString());
+        Shift firstShift = roster.getShiftList().get(0);
+        Shift secondShift = roster.getShiftList().get(1);
+        assertEquals(LocalDate.of(2025, 5, 26), firstShift.getShiftDate());
+        assertTrue(firstShift.isOvernight());
+        assertEquals(firstShift.getStartMinute() + 8 * 60, firstShift.getEndMinute());
+        // Resolved to the employeeList instance
+        assertSame(roster.getEmployeeList().get(0), firstShift.getAssignedEmployee());
+        assertSame(roster.getEmployeeList().get(0), secondShift.getAssignedEmployee());
+        // Repeated strings are shared
+        assertSame(firstShift.getShiftPatternId(), secondShift.getShiftPatternId());
+        assertSame(firstShift.getShiftPatternId(), roster.getEmployeeList().get(0).getShiftPatternIds().get(0));
+        assertNull(roster.getShiftList().get(2).getShiftDate());
+    }
+
+    @Test
+    void readRosterWithRemovedEmployee() throws Exception {
+        ObjectMapper objectMapper = buildObjectMapper();
+        // A previous solution re-sent without employee A2 (e.g. on /roster/resolve)
+        String json = "{\"shiftList\": ["
+                + "{\"shiftDayId\": \"S1\", \"shiftPatternId\": \"DAY\", \"shiftTime\": \"09:00 Am - 05:00 Pm\","
+                + " \"shiftDate\": \"2025-05-26\", \"assignedEmployee\": {\"assignmentId\": \"A1\"}},"
+                + "{\"shiftDayId\": \"S2\", \"shiftPatternId\": \"DAY\", \"shiftTime\": \"09:00 Am - 05:00 Pm\","
+                + " \"shiftDate\": \"2025-05-27\", \"assignedEmployee\": {\"assignmentId\": \"A2\"}},"
+                + "{\"shiftDayId\": \"S3\", \"shiftPatternId\": \"DAY\", \"shiftTime\": \"09:00 Am - 05:00 Pm\","
+                + " \"shiftDate\": \"2025-05-28\", \"assignedEmployee\": \"A2\"}],"
+                + " \"employeeList\": [{\"assignmentId\": \"A1\", \"associateId\": \"P1\", \"shiftPatternIds\": [\"DAY\"]}]}";
+
+        Roster roster = objectMapper.readValue(json, Roster.class);
+
+        Shift removedEmployeeShift = roster.getShiftList().get(1);
+        assertEquals("A2", removedEmployeeShift.getAssignedEmployee().getAssignmentId());
+        roster.buildIndexes();
+        assertSame(roster.getEmployeeList().get(0), roster.getShiftList().get(0).getAssignedEmployee());
+        assertNull(removedEmployeeShift.getAssignedEmployee());
+        assertNull(roster.getShiftList().get(2).getAssignedEmployee());
+    }
+
+    @Test
+    void readRosterWithNullEntries() {
+        ObjectMapper objectMapper = buildObjectMapper();
+        String nullEmployeeJson = "{\"employeeList\": [{\"assignmentId\": \"A1\"}, null], \"shiftList\": []}";
+        String nullShiftJson = "{\"employeeList\": [], \"shiftList\": [null]}";
+
+        IllegalArgumentException nullEmployeeException = assertThrows(IllegalArgumentException.class,
+                () -> objectMapper.readValue(nullEmployeeJson, Roster.class));
+        assertTrue(nullEmployeeException.getMessage().contains("employeeList"));
+        IllegalArgumentException nullShiftException = assertThrows(IllegalArgumentException.class,
+                () -> objectMapper.readValue(nullShiftJson, Roster.class));
+        assertTrue(nullShiftException.getMessage().contains("shiftList"));
+    }
+
+    private static ObjectMapper buildObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        new RosterObjectMapperCustomizer().customize(objectMapper);
+        return objectMapper;
+    }
+}
@@ -1,6 +1,6 @@
 package org.acme.schooltimetabling.rest;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import jakarta.inject.Inject;
@@ -28,10 +28,11 @@ public class RosterResourceTest {
         Roster problem = generateProblem();
         Roster solution = rosterResource.solve(problem);
 
-        // Verify all lessons were assigned
+        // Verify all shifts were assigned
         assertFalse(solution.getShiftList().isEmpty());
         for (Shift shift : solution.getShiftList()) {
-            assertNotNull(shift.getId());
+            assertNotNull(shift.getShiftDayId());
+            assertNotNull(shift.getAssignedEmployee());
         }
 
         // Verify we found a feasible solution (no hard constraints broken)
@@ -40,35 +41,36 @@ public class RosterResourceTest {
 
     private Roster generateProblem() {
         List<Employee> employeeList = new ArrayList<>();
-        employeeList.add(new Employee(1L, "B. May"));
-        employeeList.add(new Employee(2L, "M. Curie"));
-        employeeList.add(new Employee(3L, "I. Jones"));
+        employeeList.add(new Employee("A1", "B. May", List.of("CLEANING", "MAINTENANCE"), null));
+        employeeList.add(new Employee("A2", "M. Curie", List.of("MAINTENANCE"), null));
+        employeeList.add(new Employee("A3", "I. Jones", List.of("SECURITY"), null));
 
+        LocalDate date = LocalDate.of(2025, 1, 1);
         List<Shift> shiftList = new ArrayList<>();
         shiftList.add(new Shift(
-                100L,
-                200L,
-                "Cleaning",
-                LocalDateTime.of(2025, 1, 1, 8, 0, 0),
-                LocalDateTime.of(2025, 1, 1, 10, 0, 0),
-                "Toilet"));
+                "100",
+                "200",
+                "CLEANING",
+                "Toilet",
+                "08:00 Am - 10:00 Am",
+                date));
 
         shiftList.add(new Shift(
-                101L,
-                201L,
-                "Maintenance",
-                LocalDateTime.of(2025, 1, 1, 10, 0, 0),
-                LocalDateTime.of(2025, 1, 1, 12, 0, 0),
-                "Kitchen"));
+                "101",
+                "201",
+                "MAINTENANCE",
+                "Kitchen",
+                "09:00 Am - 12:00 Pm",
+                date));
 
         shiftList.add(new Shift(
-                102L,
-                202L,
-                "Security",
-                LocalDateTime.of(2025, 1, 1, 12, 0, 0),
-                LocalDateTime.of(2025, 1, 1, 14, 0, 0),
-                "Main Gate"));
+                "102",
+                "202",
+                "SECURITY",
+                "Main Gate",
+                "10:00 Pm - 06:00 Am",
+                date));
 
         return new Roster(employeeList, shiftList);
     }
-}
\ No newline at end of file
+}
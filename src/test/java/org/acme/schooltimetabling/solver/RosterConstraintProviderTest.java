@@ -1,6 +1,7 @@
 package org.acme.schooltimetabling.solver;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
+import java.util.List;
 import jakarta.inject.Inject;
 
 import io.quarkus.test.junit.QuarkusTest;
@@ -8,33 +9,32 @@ import org.acme.schooltimetabling.domain.Shift;
 import org.acme.schooltimetabling.domain.Employee;
 import org.acme.schooltimetabling.domain.Roster;
 import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
 import org.optaplanner.test.api.score.stream.ConstraintVerifier;
 
 @QuarkusTest
 class RosterConstraintProviderTest {
 
     // Test data - reused across multiple tests
-    private static final Employee ALICE = new Employee(1L, "Alice Johnson");
-    private static final Employee BOB = new Employee(2L, "Bob Smith");
-    private static final Employee CHARLIE = new Employee(3L, "Charlie Brown");
-
-    // Test time periods
-    private static final LocalDateTime MON_9AM = LocalDateTime.of(2024, 1, 15, 9, 0);
-    private static final LocalDateTime MON_5PM = LocalDateTime.of(2024, 1, 15, 17, 0);
-    private static final LocalDateTime MON_1PM = LocalDateTime.of(2024, 1, 15, 13, 0);
-    private static final LocalDateTime MON_9PM = LocalDateTime.of(2024, 1, 15, 21, 0);
-    private static final LocalDateTime TUE_9AM = LocalDateTime.of(2024, 1, 16, 9, 0);
-    private static final LocalDateTime TUE_5PM = LocalDateTime.of(2024, 1, 16, 17, 0);
+    private static final Employee ALICE = new Employee("A1", "P1", List.of("DAY", "NIGHT"), "JOB_CLEANING");
+    private static final Employee BOB = new Employee("A2", "P2", List.of("DAY", "NIGHT"), null);
+    private static final Employee CHARLIE = new Employee("A3", "P3", List.of("DAY", "NIGHT"), null);
+
+    // Test days
+    private static final LocalDate SUNDAY = LocalDate.of(2024, 1, 14);
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 15);
+    private static final LocalDate TUESDAY = LocalDate.of(2024, 1, 16);
+    private static final LocalDate WEDNESDAY = LocalDate.of(2024, 1, 17);
 
     @Inject
     ConstraintVerifier<RosterConstraintProvider, Roster> constraintVerifier;
 
     @Test
-    void employeeOverlappingShiftConflict() {
+    void employeeConflictingOverlappingShifts() {
         // Create overlapping shifts for the same employee
-        Shift morningShift = new Shift(1L, 100L, "Clean", MON_9AM, MON_5PM, "Store Front");
-        Shift afternoonShift = new Shift(2L, 200L, "Clean", MON_1PM, MON_9PM, "Warehouse"); // Overlaps 1PM-5PM
-        Shift nonOverlappingShift = new Shift(3L, 300L, "Clean", TUE_9AM, TUE_5PM, "Store Front"); // Different day
+        Shift morningShift = shift("S1", "DAY", "09:00 Am - 05:00 Pm", MONDAY);
+        Shift afternoonShift = shift("S2", "DAY", "01:00 Pm - 09:00 Pm", MONDAY); // Overlaps 1PM-5PM
+        Shift nonOverlappingShift = shift("S3", "DAY", "09:00 Am - 05:00 Pm", TUESDAY); // Different day
 
         // Assign same employee to overlapping shifts
         morningShift.setAssignedEmployee(ALICE);
@@ -42,7 +42,7 @@ class RosterConstraintProviderTest {
         nonOverlappingShift.setAssignedEmployee(ALICE); // OK: Different day
 
         // Verify: Alice working 2 overlapping shifts = 1 penalty
-        constraintVerifier.verifyThat(RosterConstraintProvider::employeeOverlappingShiftConflict)
+        constraintVerifier.verifyThat(RosterConstraintProvider::employeeConflictingOverlappingShifts)
                 .given(morningShift, afternoonShift, nonOverlappingShift)
                 .penalizesBy(1);
     }
@@ -50,42 +50,46 @@ class RosterConstraintProviderTest {
     @Test
     void noConflictWhenDifferentEmployees() {
         // Same time periods, but different employees
-        Shift shift1 = new Shift(1L, 100L, "Clean",MON_9AM, MON_5PM, "Store Front");
-        Shift shift2 = new Shift(2L, 200L, "Clean", MON_1PM, MON_9PM, "Store Front"); // Overlapping time
-        
+        Shift shift1 = shift("S1", "DAY", "09:00 Am - 05:00 Pm", MONDAY);
+        Shift shift2 = shift("S2", "DAY", "01:00 Pm - 09:00 Pm", MONDAY); // Overlapping time
+
         // Assign different employees
         shift1.setAssignedEmployee(ALICE);
         shift2.setAssignedEmployee(BOB);  // Different employee = NO conflict
 
         // Verify: Different employees can work overlapping shifts
-        constraintVerifier.verifyThat(RosterConstraintProvider::employeeOverlappingShiftConflict)
+        constraintVerifier.verifyThat(RosterConstraintProvider::employeeConflictingOverlappingShifts)
                 .given(shift1, shift2)
                 .penalizesBy(0);
     }
 
     @Test
-    void noConflictWhenNonOverlappingTimes() {
+    void noConflictForBackToBackShifts() {
         // Sequential shifts (no time overlap)
-        Shift morningShift = new Shift(1L, 100L, "Clean", MON_9AM, MON_5PM, "Store");
-        Shift eveningShift = new Shift(2L, 200L, "Clean",MON_5PM, MON_9PM, "Store"); // Starts when morning ends
-        
-        // Same employee working sequential shifts
+        Shift morningShift = shift("S1", "DAY", "09:00 Am - 05:00 Pm", MONDAY);
+        Shift eveningShift = shift("S2", "DAY", "05:00 Pm - 09:00 Pm", MONDAY); // Starts when morning ends
+        Shift nightShift = shift("S3", "NIGHT", "09:00 Pm - 05:00 Am", MONDAY); // Starts when evening ends
+        Shift nextMorningShift = shift("S4", "DAY", "05:00 Am - 01:00 Pm", TUESDAY); // Starts when night ends
+
+        // Same employee working sequential shifts, across midnight too
         morningShift.setAssignedEmployee(ALICE);
-        eveningShift.setAssignedEmployee(ALICE); // Same employee, but no overlap
+        eveningShift.setAssignedEmployee(ALICE);
+        nightShift.setAssignedEmployee(ALICE);
+        nextMorningShift.setAssignedEmployee(ALICE);
 
         // Verify: Same employee can work back-to-back shifts (no overlap)
-        constraintVerifier.verifyThat(RosterConstraintProvider::employeeOverlappingShiftConflict)
-                .given(morningShift, eveningShift)
+        constraintVerifier.verifyThat(RosterConstraintProvider::employeeConflictingOverlappingShifts)
+                .given(morningShift, eveningShift, nightShift, nextMorningShift)
                 .penalizesBy(0);
     }
 
     @Test
     void multipleOverlappingConflicts() {
         // One employee assigned to 3 overlapping shifts
-        Shift shift1 = new Shift(1L, 100L, "Clean",MON_9AM, MON_5PM, "Store");
-        Shift shift2 = new Shift(2L, 200L, "Clean",MON_1PM, MON_9PM, "Warehouse");
-        Shift shift3 = new Shift(3L, 300L, "Clean",MON_1PM, MON_5PM, "Security");
-        
+        Shift shift1 = shift("S1", "DAY", "09:00 Am - 05:00 Pm", MONDAY);
+        Shift shift2 = shift("S2", "DAY", "01:00 Pm - 09:00 Pm", MONDAY);
+        Shift shift3 = shift("S3", "DAY", "01:00 Pm - 05:00 Pm", MONDAY);
+
         // All assigned to Charlie
         shift1.setAssignedEmployee(CHARLIE);
         shift2.setAssignedEmployee(CHARLIE);
@@ -93,23 +97,72 @@ class RosterConstraintProviderTest {
 
         // Verify: 3 overlapping shifts = 3 pairwise conflicts
         // (1 vs 2) + (1 vs 3) + (2 vs 3) = 3 penalties
-        constraintVerifier.verifyThat(RosterConstraintProvider::employeeOverlappingShiftConflict)
+        constraintVerifier.verifyThat(RosterConstraintProvider::employeeConflictingOverlappingShifts)
                 .given(shift1, shift2, shift3)
                 .penalizesBy(3);
     }
 
+    @Test
+    void overnightShiftConflictsAcrossMidnight() {
+        Shift nightShift = shift("S1", "NIGHT", "10:00 Pm - 06:00 Am", MONDAY);
+        Shift lateEveningShift = shift("S2", "DAY", "06:00 Pm - 11:00 Pm", MONDAY); // Overlaps 10PM-11PM
+        Shift afterMidnightShift = shift("S3", "NIGHT", "12:00 Am - 04:00 Am", TUESDAY); // Overlaps 12AM-4AM
+
+        nightShift.setAssignedEmployee(ALICE);
+        lateEveningShift.setAssignedEmployee(ALICE);
+        afterMidnightShift.setAssignedEmployee(ALICE);
+
+        // Verify: night vs late evening + night vs after midnight = 2 penalties
+        // (late evening ends before midnight)
+        constraintVerifier.verifyThat(RosterConstraintProvider::employeeConflictingOverlappingShifts)
+                .given(nightShift, lateEveningShift, afterMidnightShift)
+                .penalizesBy(2);
+    }
+
+    @Test
+    void overnightShiftFromPreviousDayConflicts() {
+        // Day -1: Sunday's night shift runs into Monday morning
+        Shift sundayNightShift = shift("S1", "NIGHT", "10:00 Pm - 06:00 Am", SUNDAY);
+        Shift mondayEarlyShift = shift("S2", "DAY", "05:00 Am - 01:00 Pm", MONDAY); // Overlaps 5AM-6AM
+        Shift mondayNightShift = shift("S3", "NIGHT", "10:00 Pm - 06:00 Am", MONDAY); // Same times, next day
+
+        sundayNightShift.setAssignedEmployee(ALICE);
+        mondayEarlyShift.setAssignedEmployee(ALICE);
+        mondayNightShift.setAssignedEmployee(ALICE);
+
+        // Verify: only Sunday night vs Monday early = 1 penalty
+        constraintVerifier.verifyThat(RosterConstraintProvider::employeeConflictingOverlappingShifts)
+                .given(sundayNightShift, mondayEarlyShift, mondayNightShift)
+                .penalizesBy(1);
+    }
+
+    @Test
+    void noConflictBeyondTheNextDay() {
+        // Day +1 and +2: an overnight shift only reaches into the next day
+        Shift mondayNightShift = shift("S1", "NIGHT", "10:00 Pm - 06:00 Am", MONDAY);
+        Shift tuesdayNightShift = shift("S2", "NIGHT", "10:00 Pm - 06:00 Am", TUESDAY);
+        Shift wednesdayEarlyShift = shift("S3", "DAY", "05:00 Am - 01:00 Pm", WEDNESDAY);
+
+        mondayNightShift.setAssignedEmployee(ALICE);
+        tuesdayNightShift.setAssignedEmployee(ALICE);
+        wednesdayEarlyShift.setAssignedEmployee(BOB);
+
+        // Verify: Monday night vs Tuesday night don't overlap, Wednesday is Bob's
+        constraintVerifier.verifyThat(RosterConstraintProvider::employeeConflictingOverlappingShifts)
+                .given(mondayNightShift, tuesdayNightShift, wednesdayEarlyShift)
+                .penalizesBy(0);
+    }
+
     @Test
     void noConflictWhenUnassignedShifts() {
         // Shifts with no assigned employees
-        Shift shift1 = new Shift(1L, 100L, "Clean",MON_9AM, MON_5PM, "Store");
-        Shift shift2 = new Shift(2L, 200L, "Clean",MON_1PM, MON_9PM, "Store");
-        
+        Shift shift1 = shift("S1", "DAY", "09:00 Am - 05:00 Pm", MONDAY);
+        Shift shift2 = shift("S2", "DAY", "01:00 Pm - 09:00 Pm", MONDAY);
+
         // Leave assignedEmployee as null (unassigned)
-        // shift1.setAssignedEmployee(null); // null by default
-        // shift2.setAssignedEmployee(null); // null by default
 
         // Verify: Unassigned shifts don't create conflicts
-        constraintVerifier.verifyThat(RosterConstraintProvider::employeeOverlappingShiftConflict)
+        constraintVerifier.verifyThat(RosterConstraintProvider::employeeConflictingOverlappingShifts)
                 .given(shift1, shift2)
                 .penalizesBy(0);
     }
@@ -117,15 +170,95 @@ class RosterConstraintProviderTest {
     @Test
     void partiallyAssignedShifts() {
         // Mix of assigned and unassigned shifts
-        Shift assignedShift = new Shift(1L, 100L, "Clean",MON_9AM, MON_5PM, "Store");
-        Shift unassignedShift = new Shift(2L, 200L, "Clean",MON_1PM, MON_9PM, "Store");
-        
+        Shift assignedShift = shift("S1", "DAY", "09:00 Am - 05:00 Pm", MONDAY);
+        Shift unassignedShift = shift("S2", "DAY", "01:00 Pm - 09:00 Pm", MONDAY);
+
         assignedShift.setAssignedEmployee(ALICE);
-        // unassignedShift.setAssignedEmployee(null); // remains null
 
         // Verify: One assigned, one unassigned = no conflict
-        constraintVerifier.verifyThat(RosterConstraintProvider::employeeOverlappingShiftConflict)
+        constraintVerifier.verifyThat(RosterConstraintProvider::employeeConflictingOverlappingShifts)
                 .given(assignedShift, unassignedShift)
                 .penalizesBy(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    void employeeCannotWorkIncompatibleShiftPattern() {
+        Employee dayWorker = new Employee("A4", "P4", List.of("DAY"), null);
+
+        Shift dayShift = shift("S1", "DAY", "09:00 Am - 05:00 Pm", MONDAY);
+        Shift nightShift = shift("S2", "NIGHT", "10:00 Pm - 06:00 Am", TUESDAY);
+
+        dayShift.setAssignedEmployee(dayWorker);
+        nightShift.setAssignedEmployee(dayWorker); // INCOMPATIBLE: not qualified for NIGHT
+
+        constraintVerifier.verifyThat(RosterConstraintProvider::employeeCannotWorkIncompatibleShiftPattern)
+                .given(dayShift, nightShift)
+                .penalizesBy(1);
+    }
+
+    @Test
+    void employeeCannotWorkIncompatibleShiftPatternOnIndexedRoster() {
+        // Once indexed, the shift pattern check is a bitset lookup
+        Employee dayWorker = new Employee("A4", "P4", List.of("DAY"), null);
+
+        Shift dayShift = shift("S1", "DAY", "09:00 Am - 05:00 Pm", MONDAY);
+        Shift nightShift = shift("S2", "NIGHT", "10:00 Pm - 06:00 Am", TUESDAY);
+        dayShift.setAssignedEmployee(dayWorker);
+        nightShift.setAssignedEmployee(dayWorker);
+        new Roster(List.of(dayWorker), List.of(dayShift, nightShift)).buildIndexes();
+
+        constraintVerifier.verifyThat(RosterConstraintProvider::employeeCannotWorkIncompatibleShiftPattern)
+                .given(dayShift, nightShift)
+                .penalizesBy(1);
+    }
+
+    @Test
+    void overlapIsHardAndUnassignedIsMedium() {
+        Shift morningShift = shift("S1", "DAY", "09:00 Am - 05:00 Pm", MONDAY);
+        Shift afternoonShift = shift("S2", "DAY", "01:00 Pm - 09:00 Pm", MONDAY);
+        Shift unassignedShift = shift("S3", "DAY", "09:00 Am - 05:00 Pm", TUESDAY);
+
+        morningShift.setAssignedEmployee(ALICE);
+        afternoonShift.setAssignedEmployee(ALICE);
+
+        // Verify: 1 overlap on the hard level, 1 unassigned shift on the medium level
+        constraintVerifier.verifyThat()
+                .given(morningShift, afternoonShift, unassignedShift)
+                .scores(HardMediumSoftScore.of(-1, -1, 0));
+    }
+
+    @Test
+    void employeeMustMatchShiftJobOrder() {
+        Shift cleaningShift = shift("S1", "DAY", "09:00 Am - 05:00 Pm", MONDAY);
+        cleaningShift.setJobOrderId("JOB_CLEANING");
+        Shift securityShift = shift("S2", "DAY", "09:00 Am - 05:00 Pm", TUESDAY);
+        securityShift.setJobOrderId("JOB_SECURITY");
+        Shift anyJobOrderShift = shift("S3", "DAY", "09:00 Am - 05:00 Pm", WEDNESDAY);
+
+        cleaningShift.setAssignedEmployee(ALICE);
+        securityShift.setAssignedEmployee(ALICE);    // MISMATCH: wrong job order
+        anyJobOrderShift.setAssignedEmployee(ALICE); // OK: shift has no job order
+
+        constraintVerifier.verifyThat(RosterConstraintProvider::employeeMustMatchShiftJobOrder)
+                .given(cleaningShift, securityShift, anyJobOrderShift)
+                .penalizesBy(1);
+    }
+
+    @Test
+    void unassignedShiftsPenalizedOnMediumLevel() {
+        Shift assignedShift = shift("S1", "DAY", "09:00 Am - 05:00 Pm", MONDAY);
+        Shift unassignedShift1 = shift("S2", "DAY", "09:00 Am - 05:00 Pm", MONDAY);
+        Shift unassignedShift2 = shift("S3", "DAY", "09:00 Am - 05:00 Pm", MONDAY);
+
+        assignedShift.setAssignedEmployee(ALICE);
+
+        // Verify: 2 unassigned shifts = 2 penalties
+        constraintVerifier.verifyThat(RosterConstraintProvider::preferFewerUnassignedShifts)
+                .given(assignedShift, unassignedShift1, unassignedShift2)
+                .penalizesBy(2);
+    }
+
+    private static Shift shift(String shiftDayId, String shiftPatternId, String shiftTime, LocalDate shiftDate) {
+        return new Shift(shiftDayId, shiftDayId, shiftPatternId, shiftPatternId, shiftTime, shiftDate);
+    }
+}
@@ -0,0 +1,76 @@
+package org.acme.schooltimetabling.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.acme.schooltimetabling.domain.Employee;
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.domain.Shift;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.api.score.buildin.hardmediumsoft.HardMediumSoftScore;
+import org.optaplanner.core.api.solver.SolutionManager;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.score.director.ScoreDirectorFactoryConfig;
+import org.optaplanner.core.config.solver.EnvironmentMode;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+
+class RosterIncrementalScoreCalculatorTest {
+
+    private static final String[] SHIFT_TIMES = {
+            "06:00 Am - 02:00 Pm",
+            "12:00 Pm - 08:00 Pm",
+            "10:00 Pm - 06:00 Am" // Overnight
+    };
+
+    @Test
+    void solveInFullAssertMode() {
+        // FULL_ASSERT compares every incremental score with the constraint streams from scratch
+        SolverConfig solverConfig = new SolverConfig()
+                .withSolutionClass(Roster.class)
+                .withEntityClasses(Shift.class)
+                .withEnvironmentMode(EnvironmentMode.FULL_ASSERT)
+                .withScoreDirectorFactory(new ScoreDirectorFactoryConfig()
+                        .withIncrementalScoreCalculatorClass(RosterIncrementalScoreCalculator.class)
+                        .withAssertionScoreDirectorFactory(new ScoreDirectorFactoryConfig()
+                                .withConstraintProviderClass(RosterConstraintProvider.class)))
+                .withTerminationConfig(new TerminationConfig().withSecondsSpentLimit(3L));
+
+        Roster solution = SolverFactory.<Roster> create(solverConfig).buildSolver().solve(buildRoster());
+
+        assertNotNull(solution.getScore());
+        SolverFactory<Roster> constraintStreamsSolverFactory = SolverFactory.create(new SolverConfig()
+                .withSolutionClass(Roster.class)
+                .withEntityClasses(Shift.class)
+                .withConstraintProviderClass(RosterConstraintProvider.class));
+        HardMediumSoftScore constraintStreamsScore = SolutionManager.create(constraintStreamsSolverFactory)
+                .update(solution);
+        assertEquals(constraintStreamsScore, solution.getScore());
+    }
+
+    private static Roster buildRoster() {
+        // Few employees for many shifts, so overlaps, unassigned shifts and
+        // job order mismatches all show up during the search
+        List<Employee> employeeList = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            employeeList.add(new Employee("A" + i, "P" + i,
+                    List.of("PATTERN_" + (i % 3), "PATTERN_" + ((i + 1) % 3)), i % 2 == 0 ? "JOB_1" : null));
+        }
+        LocalDate monday = LocalDate.of(2025, 5, 26);
+        List<Shift> shiftList = new ArrayList<>();
+        for (int i = 0; i < 18; i++) {
+            int pattern = i % 3;
+            Shift shift = new Shift("S" + i, "S" + i, "PATTERN_" + pattern, "Pattern " + pattern,
+                    SHIFT_TIMES[pattern], monday.plusDays(i % 4));
+            shift.setJobOrderId(i % 5 == 0 ? "JOB_2" : null);
+            shiftList.add(shift);
+        }
+        Roster roster = new Roster(employeeList, shiftList);
+        roster.buildIndexes();
+        return roster;
+    }
+}
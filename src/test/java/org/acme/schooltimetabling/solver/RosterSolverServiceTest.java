@@ -0,0 +1,179 @@
+package org.acme.schooltimetabling.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.acme.schooltimetabling.domain.Employee;
+import org.acme.schooltimetabling.domain.Roster;
+import org.acme.schooltimetabling.domain.Shift;
+import org.acme.schooltimetabling.domain.SolverOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.SolverManagerConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+
+class RosterSolverServiceTest {
+
+    private static final int PARALLEL_SOLVER_COUNT = 2;
+    private static final String BEST_SCORE_LIMIT = "0hard/0medium/0soft";
+
+    private RosterSolverService solverService;
+
+    @BeforeEach
+    void setUp() {
+        solverService = new RosterSolverService();
+        solverService.solverConfig = new SolverConfig()
+                .withTerminationConfig(new TerminationConfig().withBestScoreLimit(BEST_SCORE_LIMIT));
+        solverService.solverManagerConfig = new SolverManagerConfig()
+                .withParallelSolverCount(Integer.toString(PARALLEL_SOLVER_COUNT));
+        solverService.minSpentLimit = Duration.ofSeconds(2);
+        solverService.maxSpentLimit = Duration.ofMinutes(5);
+        // 1s per candidate
+        solverService.spentLimitPerMillionCandidates = Duration.ofSeconds(1_000_000);
+        solverService.unimprovedShare = 0.2;
+    }
+
+    @Test
+    void buildTerminationConfigScalesWithNonPinnedCandidates() {
+        // 3 shifts x 2 eligible employees, 1 of them pinned: 4 candidates
+        Roster problem = buildRoster(3, 2);
+        problem.getShiftList().get(0).setPinned(true);
+
+        TerminationConfig termination = solverService.buildTerminationConfig(problem);
+
+        assertEquals(Duration.ofSeconds(2 + 4), termination.getSpentLimit());
+        assertEquals(Duration.ofMillis(1_200), termination.getUnimprovedSpentLimit());
+        assertEquals(BEST_SCORE_LIMIT, termination.getBestScoreLimit());
+    }
+
+    @Test
+    void buildTerminationConfigCapsAtMaxSpentLimit() {
+        TerminationConfig termination = solverService.buildTerminationConfig(buildRoster(200, 5));
+
+        assertEquals(Duration.ofMinutes(5), termination.getSpentLimit());
+        assertEquals(Duration.ofMinutes(1), termination.getUnimprovedSpentLimit());
+    }
+
+    @Test
+    void buildTerminationConfigKeepsAMinimalUnimprovedSpentLimit() {
+        TerminationConfig termination = solverService.buildTerminationConfig(buildRoster(0, 0));
+
+        assertEquals(Duration.ofSeconds(2), termination.getSpentLimit());
+        assertEquals(Duration.ofSeconds(1), termination.getUnimprovedSpentLimit());
+    }
+
+    @Test
+    void buildTerminationConfigDerivesUnimprovedSpentLimitFromRequestedSpentLimit() {
+        Roster problem = buildRoster(3, 2);
+        SolverOptions solverOptions = new SolverOptions();
+        solverOptions.setSpentLimit(Duration.ofSeconds(30));
+        problem.setSolverOptions(solverOptions);
+
+        TerminationConfig termination = solverService.buildTerminationConfig(problem);
+
+        assertEquals(Duration.ofSeconds(30), termination.getSpentLimit());
+        assertEquals(Duration.ofSeconds(6), termination.getUnimprovedSpentLimit());
+    }
+
+    @Test
+    void buildTerminationConfigKeepsRequestedUnimprovedSpentLimit() {
+        Roster problem = buildRoster(3, 2);
+        SolverOptions solverOptions = new SolverOptions();
+        solverOptions.setSpentLimit(Duration.ofSeconds(30));
+        solverOptions.setUnimprovedSpentLimit(Duration.ofSeconds(10));
+        problem.setSolverOptions(solverOptions);
+
+        TerminationConfig termination = solverService.buildTerminationConfig(problem);
+
+        assertEquals(Duration.ofSeconds(30), termination.getSpentLimit());
+        assertEquals(Duration.ofSeconds(10), termination.getUnimprovedSpentLimit());
+    }
+
+    @Test
+    void buildTerminationConfigCapsRequestedSpentLimit() {
+        Roster problem = buildRoster(3, 2);
+        SolverOptions solverOptions = new SolverOptions();
+        solverOptions.setSpentLimit(Duration.ofHours(1));
+        problem.setSolverOptions(solverOptions);
+
+        TerminationConfig termination = solverService.buildTerminationConfig(problem);
+
+        assertEquals(Duration.ofMinutes(5), termination.getSpentLimit());
+        assertEquals(Duration.ofMinutes(1), termination.getUnimprovedSpentLimit());
+    }
+
+    @Test
+    void clampMoveThreadCountKeepsNone() {
+        assertEquals(SolverConfig.MOVE_THREAD_COUNT_NONE,
+                solverService.clampMoveThreadCount(SolverConfig.MOVE_THREAD_COUNT_NONE));
+    }
+
+    @Test
+    void clampMoveThreadCountSplitsCoresOverParallelSolvers() {
+        assertEquals(expectedMoveThreadCount(maxMoveThreadCount()),
+                solverService.clampMoveThreadCount(SolverConfig.MOVE_THREAD_COUNT_AUTO));
+        assertEquals(expectedMoveThreadCount(maxMoveThreadCount()),
+                solverService.clampMoveThreadCount("1000"));
+    }
+
+    @Test
+    void clampMoveThreadCountTurnsASingleMoveThreadIntoNone() {
+        assertEquals(SolverConfig.MOVE_THREAD_COUNT_NONE, solverService.clampMoveThreadCount("1"));
+        assertEquals(SolverConfig.MOVE_THREAD_COUNT_NONE, solverService.clampMoveThreadCount("0"));
+    }
+
+    @Test
+    void clampMoveThreadCountKeepsASmallerRequest() {
+        assertEquals(expectedMoveThreadCount(Math.min(2, maxMoveThreadCount())),
+                solverService.clampMoveThreadCount("2"));
+    }
+
+    @Test
+    void clampMoveThreadCountRejectsInvalidValue() {
+        assertThrows(IllegalArgumentException.class, () -> solverService.clampMoveThreadCount("many"));
+    }
+
+    @Test
+    void validateSolverOptions() {
+        solverService.validateSolverOptions(null);
+        SolverOptions solverOptions = new SolverOptions();
+        solverOptions.setMoveThreadCount(SolverConfig.MOVE_THREAD_COUNT_AUTO);
+        solverOptions.setPartitionBy(RosterPartitioner.PARTITION_BY_DATE);
+        solverService.validateSolverOptions(solverOptions);
+
+        solverOptions.setPartitionBy("WEEK");
+        assertThrows(IllegalArgumentException.class, () -> solverService.validateSolverOptions(solverOptions));
+        solverOptions.setPartitionBy(null);
+        solverOptions.setMoveThreadCount("many");
+        assertThrows(IllegalArgumentException.class, () -> solverService.validateSolverOptions(solverOptions));
+    }
+
+    private static Roster buildRoster(int shiftCount, int eligibleEmployeeCount) {
+        List<Employee> employeeList = new ArrayList<>();
+        for (int i = 0; i < eligibleEmployeeCount; i++) {
+            employeeList.add(new Employee("A" + i, "P" + i, List.of("SP1"), "JO1"));
+        }
+        List<Shift> shiftList = new ArrayList<>();
+        for (int i = 0; i < shiftCount; i++) {
+            Shift shift = new Shift("SD" + i, "OSD" + i, "SP1", "Day", "09:00 Am - 05:00 Pm",
+                    LocalDate.of(2024, 1, 1).plusDays(i));
+            shift.setEligibleEmployeeList(employeeList);
+            shiftList.add(shift);
+        }
+        return new Roster(employeeList, shiftList);
+    }
+
+    private static int maxMoveThreadCount() {
+        return Runtime.getRuntime().availableProcessors() / PARALLEL_SOLVER_COUNT;
+    }
+
+    private static String expectedMoveThreadCount(int moveThreadCount) {
+        return moveThreadCount < 2 ? SolverConfig.MOVE_THREAD_COUNT_NONE : Integer.toString(moveThreadCount);
+    }
+}